@@ -0,0 +1,144 @@
+package datastructure;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * This is a BST in which every Node also stores the summary, under an
+ * 	Aggregator, of the elements of its subtree. The summaries are kept up to
+ * 	date by every change to the tree, so the summary of the whole tree is
+ * 	available in O(1) and the summary of a range in O(log n).
+ * - it has a constructor AggregateBST<E, A>(Aggregator<E, A> aggregator);
+ * - it has a constructor AggregateBST<E, A>(Aggregator<E, A> aggregator, Comparator<E> comparator);
+ * - it has a constructor AggregateBST<E, A>(Aggregator<E, A> aggregator, Collection<E> collection);
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public class AggregateBST<E, A> extends BST<E> {
+	/**
+	 * Version of the serialized form
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The summary of the elements of each subtree
+	 */
+	private final Aggregator<? super E, A> aggregator;
+
+	/**
+	 * Constructs an empty AggregateBST object
+	 * @param aggregator - summary to maintain
+	 * @throw NullPointerException - if the aggregator is null
+	 */
+	public AggregateBST(Aggregator<? super E, A> aggregator) {
+		this(aggregator, (Comparator<? super E>) null);
+	}
+
+	/**
+	 * Constructs an empty AggregateBST object ordered by a comparator
+	 * @param aggregator - summary to maintain
+	 * @param comparator - the order of the elements, or null for their natural ordering
+	 * @throw NullPointerException - if the aggregator is null
+	 */
+	public AggregateBST(Aggregator<? super E, A> aggregator, Comparator<? super E> comparator) {
+		super(comparator, null, aggregator);
+		if ( aggregator == null )
+			throw new NullPointerException("Null aggregator");
+		this.aggregator = aggregator;
+	}
+
+	/**
+	 * Constructs an empty AggregateBST object with the same ordering and
+	 * 	summary as another
+	 * @param model - tree to take the ordering and the summary from
+	 */
+	private AggregateBST(AggregateBST<E, A> model) {
+		super(model);
+		this.aggregator = model.aggregator;
+	}
+
+	/**
+	 * Constructs an AggregateBST object storing the elements of a collection
+	 * @param aggregator - summary to maintain
+	 * @param collection - collection with elements to store
+	 * @throw NullPointerException - if the aggregator or the collection is null,
+	 * 	or if any element of the collection is null
+	 */
+	public AggregateBST(Aggregator<? super E, A> aggregator, Collection<? extends E> collection) {
+		this(aggregator);
+		addAll(collection);
+	}
+
+	/**
+	 * Returns the summary of all of the elements in this tree, in O(1)
+	 * @return the summary of the elements, or the identity if the tree is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public A aggregate() {
+		return (A) rootAggregate();
+	}
+
+	/**
+	 * Returns the summary of the elements ranging from fromElement, inclusive,
+	 * 	to toElement, inclusive, in O(log n)
+	 * @param fromElement - low endpoint (inclusive) of the range
+	 * @param toElement - high endpoint (inclusive) of the range
+	 * @return the summary of the elements in the range
+	 * @throw NullPointerException - if fromElement or toElement is null
+	 * @throw IllegalArgumentException - if fromElement is greater than toElement
+	 */
+	@SuppressWarnings("unchecked")
+	public A aggregateRange(E fromElement, E toElement) {
+		return (A) rangeAggregate(fromElement, toElement);
+	}
+
+	/**
+	 * @return the Aggregator this tree maintains
+	 */
+	public Aggregator<? super E, A> aggregator() {
+		return aggregator;
+	}
+
+	@Override
+	BST<E> newTree() {
+		return new AggregateBST<E, A>(this);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public AggregateBST<E, A> snapshot() {
+		return (AggregateBST<E, A>) super.snapshot();
+	}
+
+	@Override
+	public AggregateBST<E, A> clone() {
+		return snapshot();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public AggregateBST<E, A> union(BST<E> other) {
+		return (AggregateBST<E, A>) super.union(other);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public AggregateBST<E, A> intersection(BST<E> other) {
+		return (AggregateBST<E, A>) super.intersection(other);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public AggregateBST<E, A> difference(BST<E> other) {
+		return (AggregateBST<E, A>) super.difference(other);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public AggregateBST<E, A> split(E data) {
+		return (AggregateBST<E, A>) super.split(data);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package datastructure;
+
+import java.io.Serializable;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * This is an interface that summarizes a run of consecutive elements of a
+ * 	tree into one value, for AggregateBST. The summary of a run is built by
+ * 	lifting each element into a value and combining neighbouring values, so
+ * 	combine must be associative and identity must be its neutral value; it
+ * 	need not be commutative, as values are always combined in element order.
+ * 	An AggregateBST can be serialized only if its Aggregator is Serializable;
+ * 	the aggregators returned here are, as long as the functions given to them are.
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public interface Aggregator<E, A> {
+	/**
+	 * @return the summary of no elements
+	 */
+	A identity();
+
+	/**
+	 * @param element - an element of the tree
+	 * @return the summary of the element alone
+	 */
+	A lift(E element);
+
+	/**
+	 * @param left - summary of a run of elements
+	 * @param right - summary of the run that directly follows it
+	 * @return the summary of both runs
+	 */
+	A combine(A left, A right);
+
+	/**
+	 * Returns an aggregator built from its three functions. It is Serializable,
+	 * 	and can be serialized if the identity and both functions are
+	 * @param identity - the summary of no elements
+	 * @param lift - summarizes one element
+	 * @param combine - summarizes two consecutive runs
+	 * @return the aggregator
+	 */
+	static <E, A> Aggregator<E, A> of(A identity, Function<? super E, ? extends A> lift,
+			BinaryOperator<A> combine) {
+		class Functions implements Aggregator<E, A>, Serializable {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public A identity() {
+				return identity;
+			}
+
+			@Override
+			public A lift(E element) {
+				return lift.apply(element);
+			}
+
+			@Override
+			public A combine(A left, A right) {
+				return combine.apply(left, right);
+			}
+		}
+		return new Functions();
+	}
+
+	/**
+	 * @return an aggregator counting the elements
+	 */
+	static <E> Aggregator<E, Integer> count() {
+		return of(0, (Function<E, Integer> & Serializable) element -> 1,
+			(BinaryOperator<Integer> & Serializable) Integer::sum);
+	}
+
+	/**
+	 * @param value - the value of an element
+	 * @return an aggregator adding up the values of the elements, which can be
+	 * 	serialized if the value function can
+	 */
+	static <E> Aggregator<E, Long> sum(ToLongFunction<? super E> value) {
+		return of(0L, (Function<E, Long> & Serializable) element -> value.applyAsLong(element),
+			(BinaryOperator<Long> & Serializable) Long::sum);
+	}
+
+	/**
+	 * @return an aggregator finding the least element, or null for no elements
+	 */
+	static <E extends Comparable<E>> Aggregator<E, E> min() {
+		return of(null, (Function<E, E> & Serializable) element -> element,
+			(BinaryOperator<E> & Serializable) (left, right) ->
+				( left == null || ( right != null && right.compareTo(left) < 0 ) ) ? right : left);
+	}
+
+	/**
+	 * @return an aggregator finding the greatest element, or null for no elements
+	 */
+	static <E extends Comparable<E>> Aggregator<E, E> max() {
+		return of(null, (Function<E, E> & Serializable) element -> element,
+			(BinaryOperator<E> & Serializable) (left, right) ->
+				( left == null || ( right != null && right.compareTo(left) > 0 ) ) ? right : left);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,871 @@
+package datastructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This is a generic BST class, kept height balanced as an AVL tree, whose
+ * 	Nodes live in parallel arrays instead of separate objects. A Node is an
+ * 	index into the arrays, 0 stands for null, and removed Nodes are kept on a
+ * 	free list and reused by later insertions. The elements stay objects of
+ * 	their own, referenced from one Object array, so the garbage collector
+ * 	still traces one object per element; what it no longer traces are the
+ * 	Node objects and the references between them. Its elements are ordered
+ * 	by their natural ordering or by a Comparator.
+ * - it has a default constructor ArenaBST<E>();
+ * - it has a constructor ArenaBST<E>(int capacity);
+ * - it has a constructor ArenaBST<E>(Comparator<E> comparator);
+ * - it has a constructor ArenaBST<E>(int capacity, Comparator<E> comparator);
+ * - it has a constructor ArenaBST<E>(E[] Collection);
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public class ArenaBST<E> extends Object implements Iterable<E> {
+	/**
+	 * The index that stands for a missing Node
+	 */
+	private static final int NIL = 0;
+
+	/**
+	 * The number of Nodes allocated by default
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * Left and right child of each Node
+	 */
+	private int[] left, right;
+
+	/**
+	 * height of each Node, zero for NIL
+	 */
+	private int[] height;
+
+	/**
+	 * number of Nodes in the subtree rooted at each Node, zero for NIL
+	 */
+	private int[] count;
+
+	/**
+	 * data stored in each Node
+	 */
+	private Object[] data;
+
+	/**
+	 * The first Node of the tree
+	 */
+	private int root;
+
+	/**
+	 * The first Node of the free list, linked through left, or NIL
+	 */
+	private int free;
+
+	/**
+	 * The number of slots in use or on the free list, including NIL
+	 */
+	private int used;
+
+	/**
+	 * The number of structural modifications made to this tree
+	 */
+	private int modCount;
+
+	/**
+	 * The order of the elements, or null for their natural ordering
+	 */
+	private final Comparator<? super E> comparator;
+
+	/**
+	 * Default constructor of an ArenaBST object, ordering its elements by
+	 * 	their natural ordering
+	 */
+	public ArenaBST() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty ArenaBST object with room for a number of elements
+	 * @param capacity - number of elements to allocate room for
+	 * @throw IllegalArgumentException - if the capacity is negative
+	 */
+	public ArenaBST(int capacity) {
+		this(capacity, null);
+	}
+
+	/**
+	 * Constructs an empty ArenaBST object ordered by a comparator
+	 * @param comparator - the order of the elements, or null for their natural ordering
+	 */
+	public ArenaBST(Comparator<? super E> comparator) {
+		this(DEFAULT_CAPACITY, comparator);
+	}
+
+	/**
+	 * Constructs an empty ArenaBST object ordered by a comparator, with room
+	 * 	for a number of elements
+	 * @param capacity - number of elements to allocate room for
+	 * @param comparator - the order of the elements, or null for their natural ordering
+	 * @throw IllegalArgumentException - if the capacity is negative
+	 */
+	public ArenaBST(int capacity, Comparator<? super E> comparator) {
+		if ( capacity < 0 )
+			throw new IllegalArgumentException("Negative capacity");
+		this.comparator = comparator;
+		allocate(capacity + 1);
+	}
+
+	/**
+	 * Consructs a new ArenaBST object stores the elements in a collection. The
+	 * 	elements are sorted and the balanced tree is laid out in the arrays in
+	 * 	one pass, instead of inserting and rebalancing them one at a time
+	 * @param collection - collection with elements to store, null elements are skipped
+	 * @throw NullPointerException - if the specified collection is null
+	 */
+	@SuppressWarnings("unchecked")
+	public ArenaBST(E[] collection) {
+		this(collection.length);
+		Object[] array = new Object[collection.length];
+		int length = 0;
+		for ( E element : collection ) {
+			if ( element != null )
+				array[length ++] = element;
+		}
+		Arrays.sort(array, 0, length, (a, b) -> compare((E) a, (E) b));
+		int distinct = 0;
+		for ( int i = 0; i < length; i ++ ) {
+			if ( distinct == 0 || compare((E) array[distinct - 1], (E) array[i]) != 0 )
+				array[distinct ++] = array[i];
+		}
+		root = build(array, 0, distinct);
+	}
+
+	/**
+	 * Lays out a balanced subtree from a range of sorted, distinct elements
+	 * @param sorted - elements in ascending order
+	 * @param from - first index of the range, inclusive
+	 * @param to - last index of the range, exclusive
+	 * @return root of the subtree, or NIL if the range is empty
+	 */
+	@SuppressWarnings("unchecked")
+	private int build(Object[] sorted, int from, int to) {
+		if ( from >= to )
+			return NIL;
+
+		int mid = ( from + to ) >>> 1;
+		int node = newNode((E) sorted[mid]);
+		left[node] = build(sorted, from, mid);
+		right[node] = build(sorted, mid + 1, to);
+		update(node);
+		return node;
+	}
+
+	/**
+	 * Compares two elements in the order of this tree
+	 * @param a - element to compare
+	 * @param b - element to compare with
+	 * @return a negative number, zero or a positive number as a is less than,
+	 * 	equal to or greater than b
+	 * @throw ClassCastException - if the elements cannot be compared
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(E a, E b) {
+		if ( comparator != null )
+			return comparator.compare(a, b);
+		return ((Comparable<? super E>) a).compareTo(b);
+	}
+
+	/**
+	 * Allocates empty arrays
+	 * @param capacity - number of slots, including NIL
+	 */
+	private void allocate(int capacity) {
+		left = new int[capacity];
+		right = new int[capacity];
+		height = new int[capacity];
+		count = new int[capacity];
+		data = new Object[capacity];
+		root = NIL;
+		free = NIL;
+		used = 1;
+	}
+
+	/**
+	 * Takes a slot from the free list, or from the end of the arrays, growing
+	 * 	them when full, and makes it a leaf
+	 * @param element - data to store in the slot
+	 * @return the index of the new Node
+	 */
+	private int newNode(E element) {
+		int node;
+		if ( free != NIL ) {
+			node = free;
+			free = left[node];
+		}
+		else {
+			if ( used == data.length ) {
+				int capacity = Math.max(used * 2, DEFAULT_CAPACITY);
+				left = Arrays.copyOf(left, capacity);
+				right = Arrays.copyOf(right, capacity);
+				height = Arrays.copyOf(height, capacity);
+				count = Arrays.copyOf(count, capacity);
+				data = Arrays.copyOf(data, capacity);
+			}
+			node = used ++;
+		}
+		left[node] = NIL;
+		right[node] = NIL;
+		height[node] = 1;
+		count[node] = 1;
+		data[node] = element;
+		return node;
+	}
+
+	/**
+	 * Returns a slot to the free list
+	 * @param node - index of the removed Node
+	 */
+	private void freeNode(int node) {
+		data[node] = null;
+		left[node] = free;
+		free = node;
+	}
+
+	/**
+	 * @param node - index of a Node
+	 * @return the data stored in the Node
+	 */
+	@SuppressWarnings("unchecked")
+	private E dataOf(int node) {
+		return (E) data[node];
+	}
+
+	/**
+	 * Returns the height of this tree. The height of a leaf is 1.
+	 * @return the height of this tree or zero if the tree is empty
+	 */
+	public int height() {
+		return height[root];
+	}
+
+	/**
+	 * updates the height and the subtree size of a given Node
+	 * @param node - Node to be updated
+	 */
+	private void update(int node) {
+		height[node] = Math.max(height[left[node]], height[right[node]]) + 1;
+		count[node] = count[left[node]] + count[right[node]] + 1;
+	}
+
+	/**
+	 * Rotates a subtree to the right around its root
+	 * @param node - root of the subtree, must have a left child
+	 * @return the new root of the subtree
+	 */
+	private int rotateRight(int node) {
+		int pivot = left[node];
+		left[node] = right[pivot];
+		right[pivot] = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	/**
+	 * Rotates a subtree to the left around its root
+	 * @param node - root of the subtree, must have a right child
+	 * @return the new root of the subtree
+	 */
+	private int rotateLeft(int node) {
+		int pivot = right[node];
+		right[node] = left[pivot];
+		left[pivot] = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	/**
+	 * Updates the height of a Node whose children are already balanced and
+	 * 	restores the AVL property with a single or double rotation
+	 * @param node - root of the subtree to rebalance
+	 * @return the new root of the subtree
+	 */
+	private int balance(int node) {
+		update(node);
+		int diff = height[left[node]] - height[right[node]];
+
+		if ( diff > 1 ) {
+			if ( height[left[left[node]]] < height[right[left[node]]] )
+				left[node] = rotateLeft(left[node]);
+			return rotateRight(node);
+		}
+		if ( diff < -1 ) {
+			if ( height[right[right[node]]] < height[left[right[node]]] )
+				right[node] = rotateRight(right[node]);
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Rebalances the Nodes of a path bottom-up after an insertion or deletion
+	 * 	below it, relinking each rebalanced subtree into its parent
+	 * @param path - Nodes from the root downwards
+	 * @param depth - number of Nodes in the path
+	 */
+	private void rebalancePath(int[] path, int depth) {
+		for ( int i = depth - 1; i >= 0; i -- ) {
+			int node = path[i];
+			int balanced = balance(node);
+			if ( i == 0 )
+				root = balanced;
+			else if ( left[path[i - 1]] == node )
+				left[path[i - 1]] = balanced;
+			else
+				right[path[i - 1]] = balanced;
+		}
+	}
+
+	/**
+	 * Adds the specified element to this set if it is not already present
+	 * @param element - data to be added to this set
+	 * @return true if this set did not already contain the specified element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public boolean add(E element) {
+		if ( element == null )
+			throw new NullPointerException("Null data");
+
+		if ( root == NIL ) {
+			compare(element, element); //type check, as a single element is never compared
+			root = newNode(element);
+			modCount ++;
+			return true;
+		}
+
+		int[] path = new int[height[root]];
+		int depth = 0;
+		int current = root;
+		int comp;
+		while ( true ) {
+			comp = compare(element, dataOf(current));
+			if ( comp == 0 )
+				return false;
+
+			path[depth ++] = current;
+			int next = ( comp < 0 ) ? left[current] : right[current];
+			if ( next == NIL )
+				break;
+			current = next;
+		}
+
+		int node = newNode(element);
+		if ( comp < 0 )
+			left[current] = node;
+		else
+			right[current] = node;
+
+		modCount ++;
+		rebalancePath(path, depth);
+		return true;
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection to this tree.
+	 * @param collection - collection containing elements to be added to this set
+	 * @return true if this set changed as a result of the call
+	 * @throw NullPointerException - if the specified collection is null or if any
+	 * 	element of the collection is null
+	 */
+	public boolean addAll(Collection<? extends E> collection) {
+		if ( collection == null )
+			throw new NullPointerException("Null collection");
+
+		boolean modified = false;
+		for ( E element : collection ) {
+			if ( element == null )
+				throw new NullPointerException("Null element in the collection");
+			if ( add(element) )
+				modified = true;
+		}
+		return modified;
+	}
+
+	/**
+	 * Removes the specified element from this tree if it is present.
+	 * @param o - object to be removed from this set, if present
+	 * @return true if this set contained the specified element
+	 * @throw ClassCastException - if the specified object cannot be compared
+	 * 	with the elements currently in this tree
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object o) {
+		if ( o == null )
+			throw new NullPointerException("Null element indicated");
+		if ( root == NIL )
+			return false;
+
+		E element = (E) o;
+		int[] path = new int[height[root]];
+		int depth = 0;
+		int current = root;
+		int comp;
+		while ( (comp = compare(element, dataOf(current))) != 0 ) {
+			path[depth ++] = current;
+			current = ( comp < 0 ) ? left[current] : right[current];
+			if ( current == NIL )
+				return false;
+		}
+
+		//if the node has 2 children, replace its data with the left largest
+		//and unlink the Node that held the left largest instead
+		int victim = current;
+		if ( left[current] != NIL && right[current] != NIL ) {
+			path[depth ++] = current;
+			victim = left[current];
+			while ( right[victim] != NIL ) {
+				path[depth ++] = victim;
+				victim = right[victim];
+			}
+			data[current] = data[victim];
+		}
+
+		int replacement = ( left[victim] != NIL ) ? left[victim] : right[victim];
+		if ( depth == 0 )
+			root = replacement;
+		else if ( left[path[depth - 1]] == victim )
+			left[path[depth - 1]] = replacement;
+		else
+			right[path[depth - 1]] = replacement;
+
+		freeNode(victim);
+		modCount ++;
+		rebalancePath(path, depth);
+		return true;
+	}
+
+	/**
+	 * Removes all of the elements from this set and releases the arrays
+	 */
+	public void clear() {
+		allocate(DEFAULT_CAPACITY);
+		modCount ++;
+	}
+
+	/**
+	 * Returns true if this set contains the specified element.
+	 * @param o - object to be checked for containment in this set
+	 * @return true if this set contains the specified element
+	 * @throw ClassCastException - if the specified object cannot be compared with
+	 * 	the elements currently in the set
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean contains(Object o) {
+		if ( o == null )
+			throw new NullPointerException("Null data");
+
+		E element = (E) o;
+		int current = root;
+		while ( current != NIL ) {
+			int comp = compare(element, dataOf(current));
+			if ( comp == 0 )
+				return true;
+			current = ( comp < 0 ) ? left[current] : right[current];
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if this collection contains all of the elements in the specified collection.
+	 * @param c - collection to be checked for containment in this tree
+	 * @return true if this tree contains all of the elements in the specified collection
+	 * @throw NullPointerException - if the specified collection is null or contains null
+	 */
+	public boolean containsAll(Collection<?> c) {
+		if ( c == null )
+			throw new NullPointerException("Null collection");
+
+		for ( Object element : c ) {
+			if ( !contains(element) )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of elements in this tree
+	 * @return the number of elements in this tree
+	 */
+	public int size() {
+		return count[root];
+	}
+
+	/**
+	 * Returns true if this set contains no elements
+	 * @return true if this set contains no elements
+	 */
+	public boolean isEmpty() {
+		return root == NIL;
+	}
+
+	/**
+	 * Returns the element at the specified position in this tree
+	 * @param index - index of the element to return
+	 * @return the element at the specified position in this tree
+	 * @throw IndexOutOfBoundsException - if the index is out of range (index < 0 || index >= size())
+	 */
+	public E get(int index) {
+		if ( index < 0 || index >= count[root] )
+			throw new IndexOutOfBoundsException("Index out of bound");
+
+		int current = root;
+		while ( true ) {
+			int leftSize = count[left[current]];
+			if ( index < leftSize )
+				current = left[current];
+			else if ( index > leftSize ) {
+				index -= leftSize + 1;
+				current = right[current];
+			}
+			else
+				return dataOf(current);
+		}
+	}
+
+	/**
+	 * Returns the number of elements in this tree strictly less than the given element
+	 * @param element - the value to match
+	 * @return the number of elements less than element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public int rank(E element) {
+		if ( element == null )
+			throw new NullPointerException("Null data");
+
+		int current = root;
+		int rank = 0;
+		while ( current != NIL ) {
+			int comp = compare(element, dataOf(current));
+			if ( comp <= 0 )
+				current = left[current];
+			else {
+				rank += count[left[current]] + 1;
+				current = right[current];
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the first (lowest) element currently in this tree
+	 * @return the first (lowest) element currently in this tree
+	 * @throw NoSuchElementException - if this set is empty
+	 */
+	public E first() {
+		if ( root == NIL )
+			throw new NoSuchElementException("Empty tree");
+
+		int current = root;
+		while ( left[current] != NIL )
+			current = left[current];
+		return dataOf(current);
+	}
+
+	/**
+	 * Returns the last (highest) element currently in this tree
+	 * @return the last (highest) element currently in this tree
+	 * @throw NoSuchElementException - if this set is empty
+	 */
+	public E last() {
+		if ( root == NIL )
+			throw new NoSuchElementException("Empty tree");
+
+		int current = root;
+		while ( right[current] != NIL )
+			current = right[current];
+		return dataOf(current);
+	}
+
+	/**
+	 * Finds the nearest element to a given element
+	 * @param element - the value to match
+	 * @param above - whether to look above (true) or below (false) element
+	 * @param inclusive - whether element itself matches
+	 * @return the matching element, or null if there is none
+	 */
+	private E near(E element, boolean above, boolean inclusive) {
+		if ( element == null )
+			throw new NullPointerException("Null data");
+
+		int current = root;
+		int best = NIL;
+		while ( current != NIL ) {
+			int comp = compare(element, dataOf(current));
+			if ( comp == 0 && inclusive )
+				return dataOf(current);
+			if ( above ? comp < 0 : comp > 0 ) {
+				best = current;
+				current = above ? left[current] : right[current];
+			}
+			else
+				current = above ? right[current] : left[current];
+		}
+		return dataOf(best);
+	}
+
+	/**
+	 * Returns the least element in this tree greater than or equal to
+	 * 	the given element, or null if there is no such element.
+	 * @param element - the value to match
+	 * @return the least element greater than or equal to e, or null if
+	 * 	there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E ceiling(E element) {
+		return near(element, true, true);
+	}
+
+	/**
+	 * Returns the greatest element in this set less than or equal to
+	 * the given element, or null if there is no such element
+	 * @param element - the value to match
+	 * @return the greatest element less than or equal to e, or null if
+	 * 	there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E floor(E element) {
+		return near(element, false, true);
+	}
+
+	/**
+	 * Returns the least element in this tree strictly greater than the given element,
+	 * or null if there is no such element
+	 * @param element - the value to match
+	 * @return the least element greater than e, or null if there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E higher(E element) {
+		return near(element, true, false);
+	}
+
+	/**
+	 * Returns the greatest element in this set strictly less than the given element,
+	 * 	or null if there is no such element
+	 * @param element - the value to match
+	 * @return the greatest element less than e, or null if there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E lower(E element) {
+		return near(element, false, false);
+	}
+
+	/**
+	 * Returns a collection whose elements range from fromElement, inclusive,
+	 * 	to toElement, inclusive
+	 * @param fromElement - low endpoint (inclusive) of the returned collection
+	 * @param toElement - high endpoint (inclusive) of the returned collection
+	 * @return a collection containing a portion of this tree whose elements range
+	 * 	from fromElement, inclusive, to toElement, inclusive
+	 * @throw NullPointerException - if fromElement or toElement is null
+	 * @throw IllegalArgumentException - if fromElement is greater than toElement
+	 */
+	public ArrayList<E> getRange(E fromElement, E toElement) {
+		if ( fromElement == null || toElement == null )
+			throw new NullPointerException("Null element indicated");
+
+		if ( compare(fromElement, toElement) > 0 )
+			throw new IllegalArgumentException("fromElement > toElement");
+
+		ArrayList<E> list = new ArrayList<E>();
+		Iter iter = new Iter(fromElement);
+		while ( iter.hasNext() ) {
+			E element = iter.next();
+			if ( compare(element, toElement) > 0 )
+				break;
+			list.add(element);
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the comparator used to order the elements in this tree
+	 * @return the comparator, or null if this tree uses the natural ordering of its elements
+	 */
+	public Comparator<? super E> comparator() {
+		return comparator;
+	}
+
+	/**
+	 * Returns an array containing all of the elements in this tree in ascending order
+	 * @return an array, whose runtime component type is Object, containing all of the
+	 * 	elements in this tree
+	 */
+	public Object[] toArray() {
+		Object[] array = new Object[count[root]];
+		int i = 0;
+		for ( E element : this )
+			array[i ++] = element;
+		return array;
+	}
+
+	/**
+	 * Returns a string representation of this tree
+	 * @return a string representation of this collection
+	 */
+	@Override
+	public String toString() {
+		StringBuilder tree = new StringBuilder();
+		tree.append("[");
+		Iterator<E> iter = iterator();
+		while ( iter.hasNext() ) {
+			tree.append(String.valueOf(iter.next()));
+			if ( iter.hasNext() )
+				tree.append(", ");
+		}
+		tree.append("]");
+		return tree.toString();
+	}
+
+	/**
+	 * An inorder iterator of an ArenaBST object. It keeps only the path to the
+	 * 	next element in an int array of O(height) entries
+	 */
+	class Iter implements Iterator<E> {
+		/**
+		 * Nodes whose data and right subtree are still to be visited
+		 */
+		int[] stack;
+
+		/**
+		 * number of Nodes on the stack
+		 */
+		int depth;
+
+		/**
+		 * the element returned by the last call to next(), or null
+		 */
+		E lastReturned;
+
+		/**
+		 * the modCount this iterator expects the tree to have
+		 */
+		int expectedModCount;
+
+		/**
+		 * default constructor
+		 */
+		public Iter() {
+			stack = new int[height[root]];
+			expectedModCount = modCount;
+			pushLeft(root);
+		}
+
+		/**
+		 * constructs an iterator starting at the first element not less than a bound
+		 * @param from - the bound
+		 */
+		Iter(E from) {
+			stack = new int[height[root]];
+			expectedModCount = modCount;
+			seek(from, true);
+		}
+
+		/**
+		 * pushes the path to the elements after a bound
+		 * @param from - the bound
+		 * @param inclusive - whether an element equal to the bound is included
+		 */
+		private void seek(E from, boolean inclusive) {
+			depth = 0;
+			int current = root;
+			while ( current != NIL ) {
+				int comp = compare(from, dataOf(current));
+				if ( comp < 0 || ( comp == 0 && inclusive ) ) {
+					stack[depth ++] = current;
+					current = left[current];
+				}
+				else
+					current = right[current];
+			}
+		}
+
+		/**
+		 * pushes a Node and all of its left descendants onto the stack
+		 * @param node - the first Node to push
+		 */
+		private void pushLeft(int node) {
+			while ( node != NIL ) {
+				stack[depth ++] = node;
+				node = left[node];
+			}
+		}
+
+		/**
+		 * get the next element
+		 * @return the next element
+		 * @throw NoSuchElementException if there are no more elements
+		 * @throw ConcurrentModificationException if the tree was modified
+		 * 	other than through this iterator
+		 */
+		@Override
+		public E next() {
+			if ( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+			if ( depth == 0 ) throw new
+				NoSuchElementException("reached the end of this collection");
+			int node = stack[-- depth];
+			pushLeft(right[node]);
+			lastReturned = dataOf(node);
+			return lastReturned;
+		}
+
+		/**
+		 * checks if the list has the next element
+		 * @return true if has next
+		 */
+		@Override
+		public boolean hasNext() {
+			return depth > 0;
+		}
+
+		/**
+		 * removes the last element returned by next() from the tree
+		 * @throw IllegalStateException if next() has not been called, or remove()
+		 * 	has already been called after the last call to next()
+		 * @throw ConcurrentModificationException if the tree was modified
+		 * 	other than through this iterator
+		 */
+		@Override
+		public void remove() {
+			if ( lastReturned == null )
+				throw new IllegalStateException("next() has not been called");
+			if ( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+
+			ArenaBST.this.remove(lastReturned);
+			expectedModCount = modCount;
+			seek(lastReturned, false);
+			lastReturned = null;
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements in this tree in ascending order
+	 * @return an iterator over the elements in this set in ascending order
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iter();
+	}
+
+}
\ No newline at end of file
@@ -1,20 +1,54 @@
 package datastructure;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NavigableSet;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
 /**
- * This is a generic BST class
+ * This is a generic BST class, kept height balanced as an AVL tree. Its elements
+ * 	are ordered by their natural ordering, by a Comparator, or by a long key
+ * 	extracted from each element. A BST can be serialized only if its Comparator,
+ * 	key function and Aggregator, where it has them, are Serializable; a lambda
+ * 	can be made so with a cast such as (Comparator<E> & Serializable)
  * - it has a default constructor BST<E>();
+ * - it has a constructor BST<E>(Comparator<E> comparator);
+ * - it has a constructor BST<E>(ToLongFunction<E> key);
  * - it has a constructor BST<E>(E[] Collection);
  *
  * @author Evelyn Wu
  * @version 12/01/2019
  *
  */
-public class BST<E extends Comparable<E>> extends Object implements Iterable<E>, Cloneable {
+public class BST<E> extends Object implements NavigableSet<E>, Cloneable, Serializable {
+	/**
+	 * Version of the serialized form, which is the number of elements
+	 * 	followed by the elements in ascending order
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * This is a nested class that provides nodes for the LinikedList
 	 * - it has a default constructor Node<E>();
@@ -34,6 +68,17 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 		 */
 		int height = 1;
 
+		/**
+		 * number of Nodes in the subtree rooted at this Node
+		 */
+		int size = 1;
+
+		/**
+		 * whether the Node may be reachable from more than one tree, in which
+		 * 	case it must be copied rather than modified
+		 */
+		boolean shared;
+
 		/**
 		 * data stored in the Node
 		 */
@@ -59,22 +104,134 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 
 	}
 
+	/**
+	 * This is a Node that also keeps the summary of its subtree. Only trees
+	 * 	with an Aggregator create them, so other trees do not carry the field
+	 *
+	 * @author Evelyn Wu
+	 *
+	 */
+	private static class AggregateNode <E> extends Node<E> {
+		/**
+		 * summary of the subtree rooted at this Node
+		 */
+		Object aggregate;
+
+		/**
+		 * Constructs a new AggregateNode that stores the data
+		 * @param data - data to store
+		 */
+		AggregateNode(E data) {
+			super(data);
+		}
+
+	}
+
 	/**
 	 * The first Node of the BST
 	 */
-	private Node<E> root;
+	private transient Node<E> root;
 
 	/**
 	 * The number of elements stored in this BST
 	 */
-	private int size;
+	private transient int size;
+
+	/**
+	 * The number of structural modifications made to this BST, used by the
+	 * 	iterators to fail fast on concurrent modification
+	 */
+	private transient int modCount;
+
+	/**
+	 * The cached hash code, valid while hashed is true and modCount still
+	 * 	equals hashModCount
+	 */
+	private transient int hash, hashModCount;
+
+	/**
+	 * whether a hash code has been cached
+	 */
+	private transient boolean hashed;
+
+	/**
+	 * The operation statistics of this BST, or null if they are not collected
+	 */
+	private transient BSTMetrics metrics;
+
+	/**
+	 * While metrics are collected, the number of comparisons made, and the
+	 * 	number of Nodes visited past the last comparison of a removal; measure()
+	 * 	reads the difference an operation makes to them
+	 */
+	private transient int compared, walked;
+
+	/**
+	 * The summary each Node keeps of its subtree, or null if none is kept
+	 */
+	private final Aggregator<? super E, Object> aggregator;
+
+	/**
+	 * The order of the elements, or null for their natural ordering
+	 */
+	private final Comparator<? super E> comparator;
+
+	/**
+	 * The long key the elements are ordered by, or null if they are ordered
+	 * 	by the comparator
+	 */
+	private final ToLongFunction<? super E> key;
 
 	/**
-	 * Default constructor of a BST object
+	 * Default constructor of a BST object, ordering its elements by their
+	 * 	natural ordering
 	 */
 	public BST() {
+		this(null, null, null);
+	}
+
+	/**
+	 * Constructs an empty BST object ordered by a comparator
+	 * @param comparator - the order of the elements, or null for their natural ordering
+	 */
+	public BST(Comparator<? super E> comparator) {
+		this(comparator, null, null);
+	}
+
+	/**
+	 * Constructs an empty BST object ordered by a long key of its elements.
+	 * 	Comparisons read the key of both elements and compare the two longs,
+	 * 	so they neither allocate nor call compareTo; elements with equal keys
+	 * 	are the same element to this tree
+	 * @param key - extracts the key of an element
+	 * @throw NullPointerException - if the key function is null
+	 */
+	public BST(ToLongFunction<? super E> key) {
+		this(Comparator.comparingLong(key), key, null);
+	}
+
+	/**
+	 * Constructs an empty BST object
+	 * @param comparator - the order of the elements, or null for their natural ordering
+	 * @param key - the long key the comparator orders by, or null
+	 * @param aggregator - summary each Node keeps of its subtree, or null
+	 */
+	@SuppressWarnings("unchecked")
+	BST(Comparator<? super E> comparator, ToLongFunction<? super E> key, Aggregator<? super E, ?> aggregator) {
 		root = null;
 		size = 0;
+		this.comparator = comparator;
+		this.key = key;
+		this.aggregator = (Aggregator<? super E, Object>) aggregator;
+	}
+
+	/**
+	 * Constructs an empty BST object with the same ordering and the same
+	 * 	summary of its subtrees as another
+	 * @param model - tree to take the ordering and the summary from
+	 */
+	BST(BST<E> model) {
+		this(model.comparator, model.key, model.aggregator);
 	}
 
 	/**
@@ -84,13 +241,186 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 	 * 	if any element of the collection is null
 	 */
 	public BST(E[] collection) {
+		this();
+		Object[] array = new Object[collection.length];
+		int length = 0;
 		for ( E element : collection ) {
-			try {
-				add(element);
-			} catch ( NullPointerException e ) {
-				continue;
+			if ( element != null )
+				array[length ++] = element;
+		}
+		length = sortDistinct(array, length);
+		root = build(array, 0, length);
+		size = length;
+	}
+
+	/**
+	 * Constructs a new BST object from elements that are already in strictly
+	 * 	ascending order, in linear time
+	 * @param sorted - elements to store, in strictly ascending order
+	 * @return a balanced tree containing the elements
+	 * @throw NullPointerException - if the array or any of its elements is null
+	 * @throw IllegalArgumentException - if the elements are not in strictly ascending order
+	 */
+	public static <E extends Comparable<E>> BST<E> fromSorted(E[] sorted) {
+		if ( sorted == null )
+			throw new NullPointerException("Null collection");
+
+		return new BST<E>().buildSorted(sorted);
+	}
+
+	/**
+	 * Constructs a new BST object from a collection whose iteration order is
+	 * 	strictly ascending, in linear time
+	 * @param sorted - collection of elements to store, in strictly ascending order
+	 * @return a balanced tree containing the elements
+	 * @throw NullPointerException - if the collection or any of its elements is null
+	 * @throw IllegalArgumentException - if the elements are not in strictly ascending order
+	 */
+	public static <E extends Comparable<E>> BST<E> fromSorted(Collection<? extends E> sorted) {
+		return fromSorted(sorted, null);
+	}
+
+	/**
+	 * Constructs a new BST object ordered by a comparator from a collection whose
+	 * 	iteration order is strictly ascending under it, in linear time
+	 * @param sorted - collection of elements to store, in strictly ascending order
+	 * @param comparator - the order of the elements, or null for their natural ordering
+	 * @return a balanced tree containing the elements
+	 * @throw NullPointerException - if the collection or any of its elements is null
+	 * @throw IllegalArgumentException - if the elements are not in strictly ascending order
+	 */
+	public static <E> BST<E> fromSorted(Collection<? extends E> sorted, Comparator<? super E> comparator) {
+		if ( sorted == null )
+			throw new NullPointerException("Null collection");
+
+		return new BST<E>(comparator).buildSorted(sorted.toArray());
+	}
+
+	/**
+	 * Makes this empty tree hold elements that are already in strictly ascending order
+	 * @param sorted - elements to store, in strictly ascending order
+	 * @return this tree
+	 * @throw NullPointerException - if any of the elements is null
+	 * @throw IllegalArgumentException - if the elements are not in strictly ascending order
+	 */
+	@SuppressWarnings("unchecked")
+	private BST<E> buildSorted(Object[] sorted) {
+		for ( int i = 0; i < sorted.length; i ++ ) {
+			if ( sorted[i] == null )
+				throw new NullPointerException("Null element in the collection");
+			if ( i > 0 && compare((E) sorted[i - 1], (E) sorted[i]) >= 0 )
+				throw new IllegalArgumentException("Elements not in strictly ascending order");
+		}
+
+		root = build(sorted, 0, sorted.length);
+		size = sorted.length;
+		return this;
+	}
+
+	/**
+	 * Compares two elements in the order of this tree
+	 * @param a - element to compare
+	 * @param b - element to compare with
+	 * @return a negative number, zero or a positive number as a is less than,
+	 * 	equal to or greater than b
+	 * @throw ClassCastException - if the elements cannot be compared
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(E a, E b) {
+		if ( metrics != null )
+			compared ++;
+		if ( key != null )
+			return Long.compare(key.applyAsLong(a), key.applyAsLong(b));
+		if ( comparator != null )
+			return comparator.compare(a, b);
+		return ((Comparable<? super E>) a).compareTo(b);
+	}
+
+	/**
+	 * Returns the long key of the element an operation searches for, so that
+	 * 	it is extracted once per operation rather than at every level
+	 * @param data - the element searched for
+	 * @return its key if this tree is ordered by a long key, and otherwise 0
+	 */
+	private long probeKey(E data) {
+		return ( key != null ) ? key.applyAsLong(data) : 0;
+	}
+
+	/**
+	 * Compares the element an operation searches for with an element of the
+	 * 	tree, using the key already extracted from it by probeKey()
+	 * @param data - the element searched for
+	 * @param probe - the key returned by probeKey(data)
+	 * @param other - element of the tree to compare with
+	 * @return a negative number, zero or a positive number as data is less than,
+	 * 	equal to or greater than other
+	 * @throw ClassCastException - if the elements cannot be compared
+	 */
+	@SuppressWarnings("unchecked")
+	private int compareProbe(E data, long probe, E other) {
+		if ( metrics != null )
+			compared ++;
+		if ( key != null )
+			return Long.compare(probe, key.applyAsLong(other));
+		if ( comparator != null )
+			return comparator.compare(data, other);
+		return ((Comparable<? super E>) data).compareTo(other);
+	}
+
+	/**
+	 * Checks whether another tree orders its elements the same way as this tree
+	 * @param other - tree to check
+	 * @return true if both trees are known to use the same ordering
+	 */
+	private boolean sameOrder(BST<?> other) {
+		if ( key != null || other.key != null )
+			return key == other.key;
+		return comparator == other.comparator
+			|| ( comparator != null && comparator.equals(other.comparator) );
+	}
+
+	/**
+	 * Builds a perfectly balanced subtree from a range of a sorted array
+	 * @param sorted - distinct elements in ascending order
+	 * @param from - first index of the range, inclusive
+	 * @param to - last index of the range, exclusive
+	 * @return root of the subtree, or null if the range is empty
+	 */
+	@SuppressWarnings("unchecked")
+	private Node<E> build(Object[] sorted, int from, int to) {
+		if ( from >= to )
+			return null;
+
+		int mid = ( from + to ) >>> 1;
+		Node<E> node = allocate((E) sorted[mid]);
+		node.left = build(sorted, from, mid);
+		node.right = build(sorted, mid + 1, to);
+		updateHeight(node);
+		return node;
+	}
+
+	/**
+	 * Sorts the first elements of an array and removes duplicates, skipping
+	 * 	the sort when the elements are already in order
+	 * @param array - array of non-null elements
+	 * @param length - number of elements to consider
+	 * @return the number of distinct elements, now at the front of the array
+	 */
+	@SuppressWarnings("unchecked")
+	private int sortDistinct(Object[] array, int length) {
+		for ( int i = 1; i < length; i ++ ) {
+			if ( compare((E) array[i - 1], (E) array[i]) >= 0 ) {
+				Arrays.sort(array, 0, length, (a, b) -> compare((E) a, (E) b));
+				break;
 			}
 		}
+
+		int distinct = 0;
+		for ( int i = 0; i < length; i ++ ) {
+			if ( distinct == 0 || compare((E) array[distinct - 1], (E) array[i]) != 0 )
+				array[distinct ++] = array[i];
+		}
+		return distinct;
 	}
 
 	/**
@@ -111,232 +441,538 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 	}
 
 	/**
-	 * updates the height of a given Node
+	 * updates the height and the subtree size of a given Node
 	 * @param node - Node to be updated
 	 */
 	private void updateHeight(Node<E> node) {
-		if ( node.left == null && node.right == null )
+		if ( node.left == null && node.right == null ) {
 			node.height = 1;
+			node.size = 1;
+		}
 
-		else if  ( node.left == null )
+		else if  ( node.left == null ) {
 			node.height = node.right.height + 1;
+			node.size = node.right.size + 1;
+		}
 
-		else if ( node.right == null )
+		else if ( node.right == null ) {
 			node.height = node.left.height + 1;
+			node.size = node.left.size + 1;
+		}
 
-		else
+		else {
 			node.height = Math.max(node.right.height, node.left.height) + 1;
+			node.size = node.right.size + node.left.size + 1;
+		}
+
+		if ( aggregator != null ) {
+			Object aggregate = aggregator.lift(node.data);
+			if ( node.left != null )
+				aggregate = aggregator.combine(aggregateOf(node.left), aggregate);
+			if ( node.right != null )
+				aggregate = aggregator.combine(aggregate, aggregateOf(node.right));
+			( (AggregateNode<E>) node ).aggregate = aggregate;
+		}
 	}
 
 	/**
-	 * Adds the specified element to this set if it is not already present
-	 * @param data - data to be added to this set
-	 * @return true if this set did not already contain the specified element
-	 * @throw NullPointerException - if the specified element is null and this set
-	 * 	uses natural ordering, or its comparator does not permit null elements
+	 * Returns the number of Nodes in a possibly empty subtree
+	 * @param node - root of the subtree
+	 * @return the size of the subtree or zero if it is empty
 	 */
-	public boolean add(E data) {
-		if ( data == null )
-			throw new NullPointerException("Null data");
-
-		int originalSize = size;
-		root = add(root, data);
+	private static int sizeOf(Node<?> node) {
+		return ( node == null ) ? 0 : node.size;
+	}
 
-		if( size > originalSize ) return true;
-		return false;
+	/**
+	 * Returns the height of a possibly empty subtree
+	 * @param node - root of the subtree
+	 * @return the height of the subtree or zero if it is empty
+	 */
+	private static int heightOf(Node<?> node) {
+		return ( node == null ) ? 0 : node.height;
 	}
 
 	/**
-	 * Adds the specified element recursively
-	 * @param node - current Node
-	 * @param data - data to add
-	 * @return the root Node
+	 * Rotates a subtree to the right around its root
+	 * @param node - writable root of the subtree, must have a left child
+	 * @return the new root of the subtree
 	 */
-	private Node<E> add(Node<E> node, E data) {
-		if ( node == null ) {
-			node = new Node<E>(data);
-			size += 1;
-		}
-		int comp = data.compareTo(node.data);
-		if ( comp == 0 )
-			return node;
-		else {
-			if ( comp > 0 ) {
-				node.right = add(node.right, data);
-			}
-			if ( comp < 0 ) {
-				node.left = add(node.left, data);
-			}
-		}
+	private Node<E> rotateRight(Node<E> node) {
+		if ( metrics != null )
+			metrics.rotation();
+		Node<E> pivot = writable(node.left);
+		node.left = pivot.right;
+		pivot.right = node;
 		updateHeight(node);
-		return node;
+		updateHeight(pivot);
+		return pivot;
 	}
 
 	/**
-	 * Adds all of the elements in the specified collection to this tree.
-	 * @param collection - collection containing elements to be added to this set
-	 * @return true if this set changed as a result of the call
-	 * @throw NullPointerException - if the specified collection is null or if any
-	 * 	element of the collection is null
+	 * Rotates a subtree to the left around its root
+	 * @param node - writable root of the subtree, must have a right child
+	 * @return the new root of the subtree
 	 */
-	public boolean addAll(Collection<? extends E> collection) {
-		if ( collection == null )
-			throw new NullPointerException("Null collection");
+	private Node<E> rotateLeft(Node<E> node) {
+		if ( metrics != null )
+			metrics.rotation();
+		Node<E> pivot = writable(node.right);
+		node.right = pivot.left;
+		pivot.left = node;
+		updateHeight(node);
+		updateHeight(pivot);
+		return pivot;
+	}
 
-		int originalSize = size;
+	/**
+	 * Updates the height of a Node whose children are already balanced and
+	 * 	restores the AVL property (children heights differ by at most one)
+	 * 	with a single or double rotation
+	 * @param node - writable root of the subtree to rebalance
+	 * @return the new root of the subtree
+	 */
+	private Node<E> balance(Node<E> node) {
+		updateHeight(node);
+		int diff = heightOf(node.left) - heightOf(node.right);
 
-		for ( E data : collection ) {
-			try {
-				add(data);
-			} catch ( NullPointerException e ) {
-				throw new NullPointerException("Null element in the collection");
-			}
+		if ( diff > 1 ) {
+			if ( heightOf(node.left.left) < heightOf(node.left.right) )
+				node.left = rotateLeft(writable(node.left));
+			return rotateRight(node);
 		}
-		return ( size > originalSize );
+		if ( diff < -1 ) {
+			if ( heightOf(node.right.right) < heightOf(node.right.left) )
+				node.right = rotateRight(writable(node.right));
+			return rotateLeft(node);
+		}
+		return node;
 	}
 
-
+	/**
+	 * Allocates a buffer large enough to hold any root-to-leaf path of this tree
+	 * @return an empty path buffer
+	 */
 	@SuppressWarnings("unchecked")
-	public int addNodes() {
-		return addNodes((Node<Integer>) root, 0);
-	}
-
-	private int addNodes(Node<Integer> node, int sum) {
-		if ( node == null || (node.left == null&&node.right == null)) {
-			//System.out.println("SumHere: " + sum);
-			return sum;
-		}
-
-		return node.data + addNodes(node.left, sum) + addNodes(node.right, sum);
-
+	private Node<E>[] newPath() {
+		return (Node<E>[]) new Node<?>[height()];
 	}
 
 	/**
-	 * stores whether the set is changed as a result of the call of remove();
+	 * Allocates a path buffer and fills it with the Nodes met by a descent from
+	 * 	the root, replaying the turns recorded while searching, so that a path
+	 * 	is only allocated once a modification is certain. An AVL tree of at most
+	 * 	Integer.MAX_VALUE elements is less than 64 levels high
+	 * @param turns - bit i is set if the descent went right from depth i
+	 * @param depth - number of Nodes to record
+	 * @return a path buffer holding the first depth Nodes of the descent
 	 */
-	private boolean found;
+	private Node<E>[] pathOf(long turns, int depth) {
+		Node<E>[] path = newPath();
+		Node<E> current = root;
+		for ( int i = 0; i < depth; i ++ ) {
+			path[i] = current;
+			current = ( (turns >>> i & 1) != 0 ) ? current.right : current.left;
+		}
+		return path;
+	}
 
 	/**
-	 * Removes the specified element from this tree if it is present.
-	 * @param o - object to be removed from this set, if present
-	 * @return true if this set contained the specified element
-	 * @throw ClassCastException - if the specified object cannot be compared
-	 * 	with the elements currently in this tree
-	 * @throw NullPointerException - if the specified element is null
+	 * Returns a Node that may be modified by this tree: the Node itself, or a
+	 * 	private copy if it is shared with another tree. The children of a copy
+	 * 	become reachable from both versions, so they are marked as shared
+	 * @param node - the Node to modify
+	 * @return the Node or its copy
 	 */
-	@SuppressWarnings("unchecked")
-	public boolean remove(Object o) {
-		found = false;
-		if ( o == null )
-			throw new NullPointerException("Null element indicated");
-		//E originalRoot = root.data;
-		E data;
-		try {
-			data = (E) o;
-			root = remove(root, data);
-			size--;
-		} catch ( ClassCastException e ) {
-			throw new ClassCastException("Cannot cast the input object");
-		}
+	private Node<E> writable(Node<E> node) {
+		if ( !node.shared )
+			return node;
 
-		return found;
+		Node<E> copy = allocate(node.data);
+		copy.left = node.left;
+		copy.right = node.right;
+		copy.height = node.height;
+		copy.size = node.size;
+		if ( aggregator != null )
+			( (AggregateNode<E>) copy ).aggregate = aggregateOf(node);
+		if ( copy.left != null )
+			copy.left.shared = true;
+		if ( copy.right != null )
+			copy.right.shared = true;
+		return copy;
 	}
 
 	/**
-	 * Removes the specified element from this tree recursively
-	 * @param node - current Node
-	 * @param data - data to remove
-	 * @return root Node
+	 * Replaces the shared Nodes of a path with private copies, top-down, relinking
+	 * 	each copy into its parent so that the whole path may be modified
+	 * @param path - Nodes from the root downwards
+	 * @param depth - number of Nodes in the path
 	 */
-	private Node<E> remove(Node<E> node, E data) {
-		int comp;
-		//not found
-		if ( node == null ) {
-			found = false;
-			size ++;
-		}
+	private void unsharePath(Node<E>[] path, int depth) {
+		for ( int i = 0; i < depth; i ++ ) {
+			Node<E> node = path[i];
+			if ( !node.shared )
+				continue;
 
-		//go left and right accordingly
-		else if ( (comp = data.compareTo(node.data)) < 0 ) {
-			node.left = remove(node.left, data);
-			updateHeight(node);
-		}
-		else if ( comp > 0 ) {
-			node.right = remove(node.right, data);
-			updateHeight(node);
+			Node<E> copy = writable(node);
+			if ( i == 0 )
+				root = copy;
+			else if ( path[i - 1].left == node )
+				path[i - 1].left = copy;
+			else
+				path[i - 1].right = copy;
+			path[i] = copy;
 		}
+	}
 
-		//found it, remove
-		else {
-			node = removeNode(node);
-			found = true;
+	/**
+	 * Rebalances the Nodes of a path bottom-up after an insertion or deletion
+	 * 	below it, relinking each rebalanced subtree into its parent
+	 * @param path - writable Nodes from the root downwards
+	 * @param depth - number of Nodes in the path
+	 */
+	private void rebalancePath(Node<E>[] path, int depth) {
+		for ( int i = depth - 1; i >= 0; i -- ) {
+			Node<E> node = path[i];
+			Node<E> balanced = balance(node);
+			if ( i == 0 )
+				root = balanced;
+			else if ( path[i - 1].left == node )
+				path[i - 1].left = balanced;
+			else
+				path[i - 1].right = balanced;
 		}
-		return node;
 	}
 
 	/**
-	 * removes a Node from a set recursively
-	 * @param node - node to remove
-	 * @return node to replace
+	 * Constructs a Node that stores the data, with room for the summary of its
+	 * 	subtree if this tree keeps one; the summary is left unset
+	 * @param data - data to store
+	 * @return the new Node
 	 */
-	private Node<E> removeNode(Node<E> node) {
-		E data;
-		//check if the node to remove has children
-		if ( node.left == null ) {
-			return node.right;
-		}
-		else if ( node.right == null ) {
-			return node.left;
-		}
+	private Node<E> allocate(E data) {
+		return ( aggregator != null ) ? new AggregateNode<E>(data) : new Node<E>(data);
+	}
 
-		//if the node has 2 children, replace its data with the left largest
-		else {
-			data = getLeftLargest(node);
-			node.data = data;
-			node.left = remove(node.left, data);
-			return node;
-		}
+	/**
+	 * Constructs a leaf that stores the data
+	 * @param data - data to store
+	 * @return the new Node
+	 */
+	private Node<E> newNode(E data) {
+		Node<E> node = allocate(data);
+		if ( aggregator != null )
+			( (AggregateNode<E>) node ).aggregate = aggregator.lift(data);
+		return node;
 	}
 
 	/**
-	 * Removes all of the elements from this set.
+	 * @param node - a Node of a tree with an Aggregator
+	 * @return the summary of the subtree rooted at the Node
 	 */
-	public void clear() {
-		root = null;
-		size = 0;
+	private static Object aggregateOf(Node<?> node) {
+		return ( (AggregateNode<?>) node ).aggregate;
 	}
 
 	/**
-	 * Returns true if this set contains the specified element.
-	 * @param o - object to be checked for containment in this set
-	 * @return true if this set contains the specified element
-	 * @throw ClassCastException - if the specified object cannot be compared with
-	 * 	the elements currently in the set
+	 * Adds the specified element to this set if it is not already present
+	 * @param data - data to be added to this set
+	 * @return true if this set did not already contain the specified element
 	 * @throw NullPointerException - if the specified element is null and this set
 	 * 	uses natural ordering, or its comparator does not permit null elements
 	 */
-	public boolean contains(Object o) {
-		if ( o == null )
+	public boolean add(E data) {
+		if ( metrics != null )
+			return measure(BSTMetrics.Operation.ADD, data, () -> insert(data));
+		return insert(data);
+	}
+
+	/**
+	 * Adds an element to this tree if it is not already present
+	 * @param data - data to be added
+	 * @return true if the tree did not already contain the element
+	 */
+	private boolean insert(E data) {
+		if ( data == null )
 			throw new NullPointerException("Null data");
 
+		if ( root == null ) {
+			compare(data, data); //type check, as a single element is never compared
+			root = newNode(data);
+			size = 1;
+			modCount ++;
+			return true;
+		}
+
+		int depth = 0;
+		long turns = 0;
 		Node<E> current = root;
+		long probe = probeKey(data);
+		int comp;
+		while ( true ) {
+			comp = compareProbe(data, probe, current.data);
+			if ( comp == 0 )
+				return false;
 
-		while ( current != null ) {
-			try {
-				@SuppressWarnings("unchecked")
-				int comp = current.data.compareTo((E) o);
+			if ( comp > 0 )
+				turns |= 1L << depth;
+			depth ++;
+			Node<E> next = ( comp < 0 ) ? current.left : current.right;
+			if ( next == null )
+				break;
+			current = next;
+		}
 
-				if ( comp == 0 ) return true;
+		Node<E>[] path = pathOf(turns, depth);
+		unsharePath(path, depth);
+		if ( comp < 0 )
+			path[depth - 1].left = newNode(data);
+		else
+			path[depth - 1].right = newNode(data);
+
+		size ++;
+		modCount ++;
+		rebalancePath(path, depth);
+		return true;
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection to this tree.
+	 * @param collection - collection containing elements to be added to this set
+	 * @return true if this set changed as a result of the call
+	 * @throw NullPointerException - if the specified collection is null or if any
+	 * 	element of the collection is null
+	 */
+	public boolean addAll(Collection<? extends E> collection) {
+		if ( collection == null )
+			throw new NullPointerException("Null collection");
+
+		int originalSize = size;
+		int count = collection.size();
+
+		if ( collection instanceof BST ) {
+			@SuppressWarnings("unchecked")
+			BST<E> tree = compatible((BST<E>) collection);
+			tree.share();
+			root = union(root, tree.root, new Halves<E>());
+			return updateSize(originalSize);
+		}
+
+		// inserting one by one costs about count * height comparisons, while
+		// merging into a rebuilt tree is linear in both sizes
+		if ( (long) count * ( height() + 1 ) <= (long) size + count ) {
+			for ( E data : collection ) {
+				try {
+					add(data);
+				} catch ( NullPointerException e ) {
+					throw new NullPointerException("Null element in the collection");
+				}
+			}
+			return ( size > originalSize );
+		}
+
+		Object[] array = collection.toArray();
+		for ( Object data : array ) {
+			if ( data == null )
+				throw new NullPointerException("Null element in the collection");
+		}
+		int length = sortDistinct(array, array.length);
+		if ( root != null ) {
+			array = merge(toArray(), array, length);
+			length = array.length;
+		}
+
+		if ( length > originalSize ) {
+			root = build(array, 0, length);
+			size = length;
+			modCount ++;
+		}
+		return ( size > originalSize );
+	}
+
+	/**
+	 * Merges two sorted arrays of distinct elements, keeping one copy of the
+	 * 	elements present in both
+	 * @param a - distinct elements in ascending order
+	 * @param b - distinct elements in ascending order
+	 * @param length - number of elements of b to merge
+	 * @return an array of the distinct elements of both, in ascending order
+	 */
+	@SuppressWarnings("unchecked")
+	private Object[] merge(Object[] a, Object[] b, int length) {
+		Object[] merged = new Object[a.length + length];
+		int i = 0, j = 0, k = 0;
+		while ( i < a.length && j < length ) {
+			int comp = compare((E) a[i], (E) b[j]);
+			if ( comp < 0 )
+				merged[k ++] = a[i ++];
+			else if ( comp > 0 )
+				merged[k ++] = b[j ++];
+			else {
+				merged[k ++] = a[i ++];
+				j ++;
+			}
+		}
+		while ( i < a.length )
+			merged[k ++] = a[i ++];
+		while ( j < length )
+			merged[k ++] = b[j ++];
+		return ( k == merged.length ) ? merged : Arrays.copyOf(merged, k);
+	}
+
+	/**
+	 * Returns the sum of the elements of a tree of Integers
+	 * @return the sum of all of the elements in this tree
+	 * @throw ClassCastException - if the elements are not Integers
+	 * @deprecated walks the whole tree; an AggregateBST with
+	 * 	Aggregator.sum() keeps the sum up to date instead
+	 */
+	@Deprecated
+	public int addNodes() {
+		int sum = 0;
+		for ( E data : this )
+			sum += (Integer) data;
+		return sum;
+	}
+
+	/**
+	 * Removes the specified element from this tree if it is present.
+	 * @param o - object to be removed from this set, if present
+	 * @return true if this set contained the specified element
+	 * @throw ClassCastException - if the specified object cannot be compared
+	 * 	with the elements currently in this tree
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public boolean remove(Object o) {
+		if ( metrics != null )
+			return measure(BSTMetrics.Operation.REMOVE, o, () -> delete(o));
+		return delete(o);
+	}
+
+	/**
+	 * Removes an element from this tree if it is present
+	 * @param o - object to be removed
+	 * @return true if the tree contained the element
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean delete(Object o) {
+		if ( o == null )
+			throw new NullPointerException("Null element indicated");
+		if ( root == null )
+			return false;
+
+		int depth = 0;
+		long turns = 0;
+		Node<E> current = root;
+		try {
+			E data = (E) o;
+			long probe = probeKey(data);
+			int comp;
+			while ( (comp = compareProbe(data, probe, current.data)) != 0 ) {
+				if ( comp > 0 )
+					turns |= 1L << depth;
+				depth ++;
+				current = ( comp < 0 ) ? current.left : current.right;
+				//not found
+				if ( current == null )
+					return false;
+			}
+		} catch ( ClassCastException e ) {
+			throw new ClassCastException("Cannot cast the input object");
+		}
+
+		Node<E>[] path = pathOf(turns, depth);
+		//if the node has 2 children, replace its data with the left largest
+		//and unlink the Node that held the left largest instead
+		Node<E> victim = current;
+		int target = -1;
+		if ( current.left != null && current.right != null ) {
+			target = depth;
+			path[depth ++] = current;
+			victim = current.left;
+			while ( victim.right != null ) {
+				path[depth ++] = victim;
+				victim = victim.right;
+			}
+			if ( metrics != null )
+				walked += depth - target;
+		}
+
+		unsharePath(path, depth);
+		if ( target >= 0 )
+			path[target].data = victim.data;
+
+		//the victim may still be reachable from another tree, and so is the
+		//child that takes its place, which must not lose that mark
+		Node<E> replacement = ( victim.left != null ) ? victim.left : victim.right;
+		if ( replacement != null && victim.shared )
+			replacement.shared = true;
+		if ( depth == 0 )
+			root = replacement;
+		else if ( path[depth - 1].left == victim )
+			path[depth - 1].left = replacement;
+		else
+			path[depth - 1].right = replacement;
+
+		size --;
+		modCount ++;
+		rebalancePath(path, depth);
+		return true;
+	}
+
+	/**
+	 * Removes all of the elements from this set.
+	 */
+	public void clear() {
+		root = null;
+		size = 0;
+		modCount ++;
+	}
+
+	/**
+	 * Returns true if this set contains the specified element.
+	 * @param o - object to be checked for containment in this set
+	 * @return true if this set contains the specified element
+	 * @throw ClassCastException - if the specified object cannot be compared with
+	 * 	the elements currently in the set
+	 * @throw NullPointerException - if the specified element is null and this set
+	 * 	uses natural ordering, or its comparator does not permit null elements
+	 */
+	public boolean contains(Object o) {
+		if ( metrics != null )
+			return measure(BSTMetrics.Operation.CONTAINS, o, () -> find(o));
+		return find(o);
+	}
+
+	/**
+	 * Returns true if this tree contains an element
+	 * @param o - object to be checked for containment
+	 * @return true if the tree contains the element
+	 */
+	private boolean find(Object o) {
+		if ( o == null )
+			throw new NullPointerException("Null data");
+
+		Node<E> current = root;
 
-				if ( comp < 0 )
+		try {
+			@SuppressWarnings("unchecked")
+			E data = (E) o;
+			long probe = probeKey(data);
+			while ( current != null ) {
+				int comp = compareProbe(data, probe, current.data);
+
+				if ( comp == 0 ) return true;
+
+				if ( comp > 0 )
 					current = current.right;
 
 			    else
 			    	current = current.left;
-			} catch ( ClassCastException e ) {
-				throw new ClassCastException(
-						"The specified object cannot be compared with elements in this set");
 			}
+		} catch ( ClassCastException e ) {
+			throw new ClassCastException(
+					"The specified object cannot be compared with elements in this set");
 		}
 		return false;
 	}
@@ -352,6 +988,28 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 		if ( c == null )
 			throw new NullPointerException("Null collection");
 
+		// a set in the order of this tree can be probed with a finger search
+		if ( c instanceof SortedSet && Objects.equals(((SortedSet<?>) c).comparator(), comparator) ) {
+			if ( c.size() > size )
+				return false;
+
+			Finger finger = new Finger();
+			try {
+				for ( Object data : c ) {
+					if ( data == null )
+						throw new NullPointerException("Null element in the collection");
+					@SuppressWarnings("unchecked")
+					E key = (E) data;
+					if ( finger.seek(key) == null )
+						return false;
+				}
+			} catch ( ClassCastException e ) {
+				throw new ClassCastException(
+						"The specified object cannot be compared with elements in this set");
+			}
+			return true;
+		}
+
 		for ( Object data : c ) {
 			if ( !contains(data) )
 				return false;
@@ -359,6 +1017,197 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 		return true;
 	}
 
+	/**
+	 * Looks up a batch of keys in ascending order. Each search resumes from the
+	 * 	path of the previous one (finger search), so m probes cost
+	 * 	O(m log(n/m + 1)) rather than O(m log n), with no allocation per probe
+	 * @param sortedKeys - keys to look up, in ascending (non-decreasing) order
+	 * @param out - receives, at the index of each key, whether this tree contains it
+	 * @throw NullPointerException - if either array or any key is null
+	 * @throw IllegalArgumentException - if the keys are not in ascending order, or
+	 * 	out is shorter than sortedKeys
+	 */
+	public void lookupBatch(E[] sortedKeys, boolean[] out) {
+		if ( out == null )
+			throw new NullPointerException("Null output");
+		if ( out.length < sortedKeys.length )
+			throw new IllegalArgumentException("Output shorter than keys");
+
+		Finger finger = new Finger();
+		for ( int i = 0; i < sortedKeys.length; i ++ )
+			out[i] = finger.seek(sortedKeys[i]) != null;
+	}
+
+	/**
+	 * Finds the ceilings of a batch of keys in ascending order, with the same
+	 * 	finger search as lookupBatch
+	 * @param sortedKeys - keys to match, in ascending (non-decreasing) order
+	 * @param out - receives, at the index of each key, the least element greater
+	 * 	than or equal to it, or null if there is none
+	 * @throw NullPointerException - if either array or any key is null
+	 * @throw IllegalArgumentException - if the keys are not in ascending order, or
+	 * 	out is shorter than sortedKeys
+	 */
+	public void ceilingBatch(E[] sortedKeys, E[] out) {
+		if ( out == null )
+			throw new NullPointerException("Null output");
+		if ( out.length < sortedKeys.length )
+			throw new IllegalArgumentException("Output shorter than keys");
+
+		Finger finger = new Finger();
+		for ( int i = 0; i < sortedKeys.length; i ++ ) {
+			finger.seek(sortedKeys[i]);
+			out[i] = ( finger.ceiling == null ) ? null : finger.ceiling.data;
+		}
+	}
+
+	/**
+	 * A search path kept between searches for keys in ascending order. Each
+	 * 	search climbs only until it reaches a subtree that can hold the key,
+	 * 	then descends from there
+	 */
+	class Finger {
+		/**
+		 * Nodes of the current path from the root downwards
+		 */
+		Node<E>[] nodes;
+
+		/**
+		 * for each Node of the path, the nearest ancestor whose left subtree holds
+		 * 	it, whose data bounds the subtree from above, or null if unbounded
+		 */
+		Node<E>[] highs;
+
+		/**
+		 * number of Nodes in the path
+		 */
+		int depth;
+
+		/**
+		 * the last key searched for, or null
+		 */
+		E previous;
+
+		/**
+		 * the least Node not less than the last key searched for, or null
+		 */
+		Node<E> ceiling;
+
+		/**
+		 * default constructor, starts at the root
+		 */
+		Finger() {
+			nodes = newPath();
+			highs = newPath();
+			if ( root != null ) {
+				nodes[0] = root;
+				depth = 1;
+			}
+		}
+
+		/**
+		 * Searches for a key not less than the previous one
+		 * @param key - the key to search for
+		 * @return the Node holding the key, or null if it is not in the tree
+		 * @throw NullPointerException - if the key is null
+		 * @throw IllegalArgumentException - if the key is less than the previous one
+		 */
+		Node<E> seek(E key) {
+			if ( key == null )
+				throw new NullPointerException("Null data");
+			if ( previous != null && compare(previous, key) > 0 )
+				throw new IllegalArgumentException("Keys not in ascending order");
+			previous = key;
+
+			ceiling = null;
+			if ( depth == 0 )
+				return null;
+
+			// climb out of subtrees whose elements are all below the key
+			long probe = probeKey(key);
+			while ( depth > 1 && highs[depth - 1] != null
+					&& compareProbe(key, probe, highs[depth - 1].data) >= 0 )
+				depth --;
+
+			Node<E> current = nodes[depth - 1];
+			while ( true ) {
+				int comp = compareProbe(key, probe, current.data);
+				if ( comp == 0 ) {
+					ceiling = current;
+					return current;
+				}
+
+				Node<E> high = ( comp < 0 ) ? current : highs[depth - 1];
+				Node<E> child = ( comp < 0 ) ? current.left : current.right;
+				if ( child == null ) {
+					ceiling = high;
+					return null;
+				}
+				nodes[depth] = child;
+				highs[depth] = high;
+				depth ++;
+				current = child;
+			}
+		}
+	}
+
+	/**
+	 * Removes from this tree all of its elements that are contained in the specified collection
+	 * @param c - collection containing elements to be removed from this tree
+	 * @return true if this tree changed as a result of the call
+	 * @throw NullPointerException - if the specified collection is null or contains
+	 * 	a null element
+	 */
+	public boolean removeAll(Collection<?> c) {
+		if ( c == null )
+			throw new NullPointerException("Null collection");
+
+		if ( c instanceof BST ) {
+			@SuppressWarnings("unchecked")
+			BST<E> tree = compatible((BST<E>) c);
+			int originalSize = size;
+			root = difference(root, tree.root, new Halves<E>());
+			return updateSize(originalSize);
+		}
+
+		boolean modified = false;
+		for ( Object data : c ) {
+			if ( remove(data) )
+				modified = true;
+		}
+		return modified;
+	}
+
+	/**
+	 * Retains only the elements in this tree that are contained in the specified collection
+	 * @param c - collection containing elements to be retained in this tree
+	 * @return true if this tree changed as a result of the call
+	 * @throw NullPointerException - if the specified collection is null
+	 */
+	public boolean retainAll(Collection<?> c) {
+		if ( c == null )
+			throw new NullPointerException("Null collection");
+
+		if ( c instanceof BST ) {
+			@SuppressWarnings("unchecked")
+			BST<E> tree = compatible((BST<E>) c);
+			int originalSize = size;
+			tree.share();
+			root = intersection(root, tree.root, new Halves<E>());
+			return updateSize(originalSize);
+		}
+
+		boolean modified = false;
+		Iterator<E> iter = iterator();
+		while ( iter.hasNext() ) {
+			if ( !c.contains(iter.next()) ) {
+				iter.remove();
+				modified = true;
+			}
+		}
+		return modified;
+	}
+
 	/**
 	 * Returns the number of elements in this tree
 	 * @return the number of elements in this tree
@@ -385,16 +1234,75 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 		if ( index < 0 || index > size - 1 )
 			throw new IndexOutOfBoundsException("Index out of bound");
 
-		Iterator<E> iter = iterator();
-		int count = -1;
-		E data = root.data;
+		Node<E> current = root;
+		while ( true ) {
+			int leftSize = sizeOf(current.left);
+			if ( index < leftSize )
+				current = current.left;
+			else if ( index > leftSize ) {
+				index -= leftSize + 1;
+				current = current.right;
+			}
+			else
+				return current.data;
+		}
+	}
+
+	/**
+	 * Returns the number of elements in this tree strictly less than the given element,
+	 * 	which is also the index the element has, or would have, in this tree
+	 * @param data - the value to match
+	 * @return the number of elements less than data
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public int rank(E data) {
+		if ( data == null )
+			throw new NullPointerException("Null data");
+
+		return rank(data, false);
+	}
 
-		while ( count < index ) {
-			data = iter.next();
-			count ++;
+	/**
+	 * Counts the elements less than, or less than or equal to, the given element
+	 * @param data - the value to match
+	 * @param inclusive - whether an element equal to data is counted
+	 * @return the number of matching elements
+	 */
+	private int rank(E data, boolean inclusive) {
+		Node<E> current = root;
+		long probe = probeKey(data);
+		int count = 0;
+		while ( current != null ) {
+			int comp = compareProbe(data, probe, current.data);
+			if ( comp < 0 )
+				current = current.left;
+			else if ( comp > 0 ) {
+				count += sizeOf(current.left) + 1;
+				current = current.right;
+			}
+			else
+				return count + sizeOf(current.left) + ( inclusive ? 1 : 0 );
 		}
+		return count;
+	}
 
-		return data;
+	/**
+	 * Returns the number of elements ranging from fromElement, inclusive,
+	 * 	to toElement, inclusive
+	 * @param fromElement - low endpoint (inclusive) of the range
+	 * @param toElement - high endpoint (inclusive) of the range
+	 * @return the number of elements in this tree within the range
+	 * @throw NullPointerException - if fromElement or toElement is null
+	 * @throw IllegalArgumentException - if fromElement is greater than toElement
+	 */
+	public int countRange(E fromElement, E toElement) {
+		if ( fromElement == null || toElement == null )
+			throw new NullPointerException("Null element indicated");
+
+		if ( compare(fromElement, toElement) > 0 )
+			throw new IllegalArgumentException("fromElement > toElement");
+
+		return rank(toElement, true) - rank(fromElement, false);
 	}
 
 	/**
@@ -411,45 +1319,58 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 		if ( fromElement == null || toElement == null )
 			throw new NullPointerException("Null element indicated");
 
-		if ( fromElement.compareTo(toElement) > 0 )
+		if ( compare(fromElement, toElement) > 0 )
 			throw new IllegalArgumentException("fromElement > toElement");
 
 		ArrayList<E> list = new ArrayList<E>();
-		for ( E data : this ) {
-			int comp1 = data.compareTo(fromElement);
-			int comp2 = data.compareTo(toElement);
-			if ( comp1 >= 0 && comp2 <= 0 )
-				list.add(data);
-		}
+		Iter iter = new Iter(fromElement, true, toElement, true, false);
+		while ( iter.hasNext() )
+			list.add(iter.next());
 		return list;
 	}
 
 	/**
-	 * Returns the Node stores smaller data
-	 * @param a - Node to compare
-	 * @param b - Node to compare
-	 * @return the Node stores smaller data
+	 * Finds the nearest element to a given element, measuring the call when
+	 * 	metrics are enabled
+	 * @param operation - the navigation method being called
+	 * @param data - the value to match
+	 * @param above - whether to look above (true) or below (false) data
+	 * @param inclusive - whether data itself matches
+	 * @return the matching element, or null if there is none
 	 */
-	private Node<E> Min(Node<E> a, Node<E> b) {
-		if ( a == null ) return b;
-		if ( b == null ) return a;
-		int comp = a.data.compareTo(b.data);
-		if ( comp > 0 ) return b;
-		else return a;
+	private E navigate(BSTMetrics.Operation operation, E data, boolean above, boolean inclusive) {
+		if ( metrics != null )
+			return measure(operation, data, () -> near(data, above, inclusive));
+		return near(data, above, inclusive);
 	}
 
 	/**
-	 * Returns the Node stores larger data
-	 * @param a - Node to compare
-	 * @param b - Node to compare
-	 * @return the Node stores larger data
+	 * Finds the nearest element to a given element
+	 * @param data - the value to match
+	 * @param above - whether to look above (true) or below (false) data
+	 * @param inclusive - whether data itself matches
+	 * @return the matching element, or null if there is none
+	 * @throw NullPointerException - if the specified element is null
 	 */
-	private Node<E> Max(Node<E> a, Node<E> b) {
-		if ( a == null ) return b;
-		if ( b == null ) return a;
-		int comp = a.data.compareTo(b.data);
-		if ( comp > 0 ) return a;
-		else return b;
+	private E near(E data, boolean above, boolean inclusive) {
+		if ( data == null )
+			throw new NullPointerException("Null data");
+
+		Node<E> current = root;
+		Node<E> best = null;
+		long probe = probeKey(data);
+		while ( current != null ) {
+			int comp = compareProbe(data, probe, current.data);
+			if ( comp == 0 && inclusive )
+				return current.data;
+			if ( above ? comp < 0 : comp > 0 ) {
+				best = current;
+				current = above ? current.left : current.right;
+			}
+			else
+				current = above ? current.right : current.left;
+		}
+		return ( best == null ) ? null : best.data;
 	}
 
 	/**
@@ -461,28 +1382,7 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 	 * @throw NullPointerException - if the specified element is null
 	 */
 	public E ceiling(E data) {
-		if ( data == null )
-			throw new NullPointerException("Null data");
-
-	    Node<E> current = root;
-	    Node<E> ceiling = null;
-	    while( current != null ) {
-	        int comp = data.compareTo(current.data);
-	        if( comp == 0 )
-	        	return current.data;
-	        else if(comp > 0) {
-	        	current = current.right;
-	        }
-	        else if(comp < 0) {
-	        	ceiling = Min(current, ceiling);
-	        	current = current.left;
-	        }
-	    }
-	    try {
-	    	return ceiling.data;
-	    } catch ( NullPointerException e ) {
-	    	return null;
-	    }
+		return navigate(BSTMetrics.Operation.CEILING, data, true, true);
 	}
 
 	/**
@@ -494,36 +1394,19 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 	 * @throw NullPointerException - if the specified element is null
 	 */
 	public E floor(E data) {
-		if ( data == null )
-			throw new NullPointerException("Null data");
-
-	    Node<E> current = root;
-	    Node<E> floor = null;
-	    while( current != null ) {
-	        int comp = data.compareTo(current.data);
-	        if( comp == 0 )
-	        	return current.data;
-	        else if(comp < 0) {
-	        	current = current.left;
-	        }
-	        else if(comp > 0) {
-	        	floor = Max(current, floor);
-	        	current = current.right;
-	        }
-	    }
-	    try {
-	    	return floor.data;
-	    } catch ( NullPointerException e ) {
-	    	return null;
-	    }
+		return navigate(BSTMetrics.Operation.FLOOR, data, false, true);
 	}
 
 	/**
-	 * Compares the specified object with this tree for equality
+	 * Compares the specified object with this tree for equality. Like any Set,
+	 * 	this tree is equal to a set with the same elements. Another BST is
+	 * 	compared by walking both trees in order in lockstep, stopping at the first
+	 * 	mismatch and skipping subtrees the two trees share
 	 * @param o - object to be compared for equality with this tree
 	 * @return true if the specified object is equal to this tree
 	 */
 	@Override
+	@SuppressWarnings("unchecked")
 	public boolean equals(Object o) {
 		if ( this == o )
 			return true;
@@ -531,20 +1414,66 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 		if ( o == null )
 			return false;
 
-		if ( !(o instanceof BST ) )
+		if ( !(o instanceof Set ) )
 			return false;
 
-		@SuppressWarnings("unchecked")
-		BST<E> tree = (BST<E>) o;
-		if ( tree.size != size )
+		if ( ((Set<?>) o).size() != size )
 			return false;
 
-		Iter iter = new Iter();
-		ArrayList<E> nodes = iter.getNodes();
-		if ( !tree.containsAll(nodes) )
+		if ( !(o instanceof BST ) || !sameOrder((BST<?>) o) )
+			return containsAll((Set<?>) o);
+
+		BST<E> tree = (BST<E>) o;
+		Node<E>[] stack = newPath(), otherStack = tree.newPath();
+		int depth = 0, otherDepth = 0;
+		Node<E> current = root, other = tree.root;
+		try {
+			while ( true ) {
+				// identical subtrees hold identical elements, so skip them
+				if ( current == other ) {
+					current = null;
+					other = null;
+				}
+				while ( current != null ) {
+					stack[depth ++] = current;
+					current = current.left;
+				}
+				while ( other != null ) {
+					otherStack[otherDepth ++] = other;
+					other = other.left;
+				}
+				if ( depth == 0 || otherDepth == 0 )
+					return depth == otherDepth;
+
+				current = stack[-- depth];
+				other = otherStack[-- otherDepth];
+				if ( current != other && compare(current.data, other.data) != 0 )
+					return false;
+				current = current.right;
+				other = other.right;
+			}
+		} catch ( ClassCastException e ) {
 			return false;
+		}
+	}
 
-		return true;
+	/**
+	 * Returns the hash code of this tree, the sum of the hash codes of its elements
+	 * 	as for any Set. It is computed once and cached until the tree is modified
+	 * @return the hash code of this tree
+	 */
+	@Override
+	public int hashCode() {
+		if ( hashed && hashModCount == modCount )
+			return hash;
+
+		int sum = 0;
+		for ( E data : this )
+			sum += data.hashCode();
+		hash = sum;
+		hashModCount = modCount;
+		hashed = true;
+		return sum;
 	}
 
 	/**
@@ -577,6 +1506,32 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 		return current.data;
 	}
 
+	/**
+	 * Retrieves and removes the first (lowest) element, or returns null if this tree is empty
+	 * @return the first element, or null if this tree is empty
+	 */
+	public E pollFirst() {
+		if ( root == null )
+			return null;
+
+		E data = first();
+		remove(data);
+		return data;
+	}
+
+	/**
+	 * Retrieves and removes the last (highest) element, or returns null if this tree is empty
+	 * @return the last element, or null if this tree is empty
+	 */
+	public E pollLast() {
+		if ( root == null )
+			return null;
+
+		E data = last();
+		remove(data);
+		return data;
+	}
+
 	/**
 	 * Returns the greatest element in this set strictly less than the given element,
 	 * 	or null if there is no such element
@@ -586,27 +1541,8 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 	 * 	elements currently in the set
 	 * @throw NullPointerException - if the specified element is null
 	 */
-	public  E lower(E data) {
-		if ( data == null )
-			throw new NullPointerException("Null data");
-
-	    Node<E> current = root;
-	    Node<E> floor = null;
-	    while( current != null ) {
-	        int comp = data.compareTo(current.data);
-	        if(comp <= 0) {
-	        	current = current.left;
-	        }
-	        else if(comp > 0) {
-	        	floor = Max(current, floor);
-	        	current = current.right;
-	        }
-	    }
-	    try {
-	    	return floor.data;
-	    } catch ( NullPointerException e ) {
-	    	return null;
-	    }
+	public E lower(E data) {
+		return navigate(BSTMetrics.Operation.LOWER, data, false, false);
 	}
 
 	/**
@@ -616,57 +1552,569 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 	 * @return the least element greater than e, or null if there is no such element
 	 * @throw NullPointerException - if the specified element is null
 	 */
-	public  E higher(E data) {
-		if ( data == null )
-			throw new NullPointerException("Null data");
+	public E higher(E data) {
+		return navigate(BSTMetrics.Operation.HIGHER, data, true, false);
+	}
 
-	    Node<E> current = root;
-	    Node<E> ceiling = null;
-	    while( current != null ) {
-	        int comp = data.compareTo(current.data);
-	        if(comp >= 0) {
-	        	current = current.right;
-	        }
-	        else if(comp < 0) {
-	        	ceiling = Min(current, ceiling);
-	        	current = current.left;
-	        }
-	    }
-	    try {
-	    	return ceiling.data;
-	    } catch ( NullPointerException e ) {
-	    	return null;
-	    }
+	/**
+	 * Returns a snapshot of this tree in O(1). The snapshot shares its Nodes with
+	 * 	this tree until either of them is modified; each modification then copies
+	 * 	only the Nodes on its root-to-leaf path, so neither tree ever observes the
+	 * 	other's changes. A snapshot handed to another thread may be read there
+	 * 	while this tree keeps changing, provided it is safely published
+	 * @return an independent tree with the same elements as this tree
+	 */
+	public BST<E> snapshot() {
+		BST<E> copy = newTree();
+		share();
+		copy.root = root;
+		copy.size = size;
+		if ( hashed && hashModCount == modCount ) {
+			copy.hash = hash;
+			copy.hashed = true;
+		}
+		return copy;
 	}
 
 	/**
-	 * Get the largest element on the left of the root
-	 * @param node - root Node
-	 * @return the largest element on the left of the root
+	 * Marks the root as shared, so that any Node of this tree is copied before
+	 * 	it is modified by this or another tree
 	 */
-	private E getLeftLargest(Node<E> node) {
-		if ( node.left == null ) return node.data;
-		else {
-			Node<E> current = node.left;
-			while ( current.right != null )
+	private void share() {
+		if ( root != null )
+			root.shared = true;
+	}
+
+	/**
+	 * Creates a tree with the given root that shares its Nodes with this tree
+	 * @param node - root of the new tree
+	 * @return the new tree
+	 */
+	private BST<E> treeOf(Node<E> node) {
+		BST<E> tree = newTree();
+		tree.root = node;
+		tree.size = sizeOf(node);
+		return tree;
+	}
+
+	/**
+	 * Returns an empty tree of the same kind as this tree, with the same
+	 * 	ordering and keeping the same summary of its subtrees
+	 * @return a new empty tree
+	 */
+	BST<E> newTree() {
+		return new BST<E>(this);
+	}
+
+	/**
+	 * Returns a tree whose Nodes may be linked into or split alongside this
+	 * 	tree: the specified tree itself if it has the same ordering and keeps
+	 * 	the same summary as this tree, otherwise a copy that does
+	 * @param other - tree whose Nodes are to be reused
+	 * @return the tree or a copy of it
+	 */
+	private BST<E> compatible(BST<E> other) {
+		if ( sameOrder(other) && ( aggregator == null || other.aggregator == aggregator ) )
+			return other;
+
+		BST<E> copy = newTree();
+		Object[] array = other.toArray();
+		int length = copy.sortDistinct(array, array.length);
+		copy.root = copy.build(array, 0, length);
+		copy.size = length;
+		return copy;
+	}
+
+	/**
+	 * @return the summary of all of the elements in this tree
+	 */
+	Object rootAggregate() {
+		return ( root == null ) ? aggregator.identity() : aggregateOf(root);
+	}
+
+	/**
+	 * Returns the summary of the elements ranging from fromElement, inclusive,
+	 * 	to toElement, inclusive. The search descends to the highest Node in the
+	 * 	range, then along the paths to both endpoints, adding the summaries of
+	 * 	the subtrees that lie wholly inside the range
+	 * @param fromElement - low endpoint (inclusive) of the range
+	 * @param toElement - high endpoint (inclusive) of the range
+	 * @return the summary of the elements in the range
+	 * @throw NullPointerException - if fromElement or toElement is null
+	 * @throw IllegalArgumentException - if fromElement is greater than toElement
+	 */
+	Object rangeAggregate(E fromElement, E toElement) {
+		if ( fromElement == null || toElement == null )
+			throw new NullPointerException("Null element indicated");
+
+		if ( compare(fromElement, toElement) > 0 )
+			throw new IllegalArgumentException("fromElement > toElement");
+
+		long fromKey = probeKey(fromElement), toKey = probeKey(toElement);
+		Node<E> top = root;
+		while ( top != null ) {
+			if ( compareProbe(fromElement, fromKey, top.data) > 0 )
+				top = top.right;
+			else if ( compareProbe(toElement, toKey, top.data) < 0 )
+				top = top.left;
+			else
+				break;
+		}
+		if ( top == null )
+			return aggregator.identity();
+
+		//the elements found along the left path precede those found before them
+		Object left = aggregator.identity();
+		for ( Node<E> current = top.left; current != null; ) {
+			if ( compareProbe(fromElement, fromKey, current.data) <= 0 ) {
+				Object inside = aggregator.lift(current.data);
+				if ( current.right != null )
+					inside = aggregator.combine(inside, aggregateOf(current.right));
+				left = aggregator.combine(inside, left);
+				current = current.left;
+			}
+			else
+				current = current.right;
+		}
+
+		//and those found along the right path follow them
+		Object right = aggregator.identity();
+		for ( Node<E> current = top.right; current != null; ) {
+			if ( compareProbe(toElement, toKey, current.data) >= 0 ) {
+				Object inside = aggregator.lift(current.data);
+				if ( current.left != null )
+					inside = aggregator.combine(aggregateOf(current.left), inside);
+				right = aggregator.combine(right, inside);
 				current = current.right;
-			return current.data;
+			}
+			else
+				current = current.left;
+		}
+
+		return aggregator.combine(aggregator.combine(left, aggregator.lift(top.data)), right);
+	}
+
+	/**
+	 * Sets the size after a structural operation replaced the root
+	 * @param originalSize - the size before the operation
+	 * @return true if the size changed
+	 */
+	private boolean updateSize(int originalSize) {
+		size = sizeOf(root);
+		if ( size == originalSize )
+			return false;
+		modCount ++;
+		return true;
+	}
+
+	/**
+	 * The pieces of a subtree split around an element
+	 */
+	private static final class Halves <E> {
+		/**
+		 * subtrees of the elements below and above the element
+		 */
+		Node<E> left, right;
+
+		/**
+		 * writable Node left over by splitLast, or holding the element split at
+		 */
+		Node<E> key;
+
+		/**
+		 * whether the element itself was in the subtree
+		 */
+		boolean found;
+	}
+
+	/**
+	 * Joins two balanced subtrees and a writable Node whose data lies between them
+	 * 	into one balanced subtree, in time proportional to their height difference
+	 * @param left - subtree of smaller elements
+	 * @param key - writable Node holding the middle element
+	 * @param right - subtree of larger elements
+	 * @return root of the joined subtree
+	 */
+	private Node<E> join(Node<E> left, Node<E> key, Node<E> right) {
+		int leftHeight = heightOf(left), rightHeight = heightOf(right);
+		if ( leftHeight > rightHeight + 1 ) {
+			Node<E> node = writable(left);
+			node.right = join(node.right, key, right);
+			return balance(node);
+		}
+		if ( rightHeight > leftHeight + 1 ) {
+			Node<E> node = writable(right);
+			node.left = join(left, key, node.left);
+			return balance(node);
+		}
+		key.left = left;
+		key.right = right;
+		updateHeight(key);
+		return key;
+	}
+
+	/**
+	 * Joins two balanced subtrees, all of whose elements of the first are
+	 * 	smaller than those of the second
+	 * @param left - subtree of smaller elements
+	 * @param right - subtree of larger elements
+	 * @param halves - scratch space
+	 * @return root of the joined subtree
+	 */
+	private Node<E> join(Node<E> left, Node<E> right, Halves<E> halves) {
+		if ( left == null )
+			return right;
+		if ( right == null )
+			return left;
+
+		splitLast(left, halves);
+		return join(halves.left, halves.key, right);
+	}
+
+	/**
+	 * Splits the largest element off a non-empty subtree
+	 * @param node - root of the subtree
+	 * @param halves - receives the rest of the subtree in left, and a writable
+	 * 	Node holding the largest element in key
+	 */
+	private void splitLast(Node<E> node, Halves<E> halves) {
+		node = writable(node);
+		if ( node.right == null ) {
+			halves.left = node.left;
+			halves.key = node;
+			return;
+		}
+		Node<E> left = node.left;
+		splitLast(node.right, halves);
+		halves.left = join(left, node, halves.left);
+	}
+
+	/**
+	 * Splits a subtree into the elements less than and greater than an element
+	 * @param node - root of the subtree
+	 * @param data - the element to split at
+	 * @param halves - receives both subtrees and whether data was present
+	 */
+	private void split(Node<E> node, E data, Halves<E> halves) {
+		if ( node == null ) {
+			halves.left = null;
+			halves.right = null;
+			halves.found = false;
+			return;
+		}
+
+		node = writable(node);
+		Node<E> left = node.left, right = node.right;
+		int comp = compare(data, node.data);
+		if ( comp < 0 ) {
+			split(left, data, halves);
+			halves.right = join(halves.right, node, right);
 		}
+		else if ( comp > 0 ) {
+			split(right, data, halves);
+			halves.left = join(left, node, halves.left);
+		}
+		else {
+			halves.left = left;
+			halves.right = right;
+			halves.key = node;
+			halves.found = true;
+		}
+	}
+
+	/**
+	 * Returns the union of two subtrees, reusing the Nodes of both
+	 * @param a - root of the first subtree
+	 * @param b - root of the second subtree
+	 * @param halves - scratch space
+	 * @return root of the union
+	 */
+	private Node<E> union(Node<E> a, Node<E> b, Halves<E> halves) {
+		if ( a == null )
+			return b;
+		if ( b == null )
+			return a;
+
+		a = writable(a);
+		Node<E> left = a.left, right = a.right;
+		split(b, a.data, halves);
+		Node<E> otherRight = halves.right;
+		left = union(left, halves.left, halves);
+		right = union(right, otherRight, halves);
+		return join(left, a, right);
+	}
+
+	/**
+	 * Returns the intersection of two subtrees, reusing the Nodes of the first
+	 * @param a - root of the first subtree
+	 * @param b - root of the second subtree
+	 * @param halves - scratch space
+	 * @return root of the intersection
+	 */
+	private Node<E> intersection(Node<E> a, Node<E> b, Halves<E> halves) {
+		if ( a == null || b == null )
+			return null;
+
+		a = writable(a);
+		Node<E> left = a.left, right = a.right;
+		split(b, a.data, halves);
+		Node<E> otherRight = halves.right;
+		boolean found = halves.found;
+		left = intersection(left, halves.left, halves);
+		right = intersection(right, otherRight, halves);
+		return found ? join(left, a, right) : join(left, right, halves);
+	}
+
+	/**
+	 * Returns the elements of a subtree not in another, without modifying the other
+	 * @param a - root of the subtree to remove elements from
+	 * @param b - root of the subtree of elements to remove
+	 * @param halves - scratch space
+	 * @return root of the difference
+	 */
+	private Node<E> difference(Node<E> a, Node<E> b, Halves<E> halves) {
+		if ( a == null || b == null )
+			return a;
+
+		split(a, b.data, halves);
+		Node<E> right = halves.right;
+		Node<E> left = difference(halves.left, b.left, halves);
+		right = difference(right, b.right, halves);
+		return join(left, right, halves);
+	}
+
+	/**
+	 * Returns a new tree of the elements in this tree or the specified tree, in
+	 * 	O(m log(n/m + 1)) time for trees of sizes m <= n. Neither tree is modified;
+	 * 	the result shares Nodes with both
+	 * @param other - tree to unite with this tree
+	 * @return the union of both trees
+	 * @throw NullPointerException - if the specified tree is null
+	 */
+	public BST<E> union(BST<E> other) {
+		if ( other == null )
+			throw new NullPointerException("Null collection");
+
+		other = compatible(other);
+		share();
+		other.share();
+		return treeOf(union(root, other.root, new Halves<E>()));
+	}
+
+	/**
+	 * Returns a new tree of the elements in both this tree and the specified tree,
+	 * 	in O(m log(n/m + 1)) time for trees of sizes m <= n. Neither tree is modified
+	 * @param other - tree to intersect with this tree
+	 * @return the intersection of both trees
+	 * @throw NullPointerException - if the specified tree is null
+	 */
+	public BST<E> intersection(BST<E> other) {
+		if ( other == null )
+			throw new NullPointerException("Null collection");
+
+		other = compatible(other);
+		share();
+		other.share();
+		return treeOf(intersection(root, other.root, new Halves<E>()));
+	}
+
+	/**
+	 * Returns a new tree of the elements in this tree but not in the specified tree,
+	 * 	in O(m log(n/m + 1)) time for trees of sizes m <= n. Neither tree is modified
+	 * @param other - tree of the elements to leave out
+	 * @return the difference of both trees
+	 * @throw NullPointerException - if the specified tree is null
+	 */
+	public BST<E> difference(BST<E> other) {
+		if ( other == null )
+			throw new NullPointerException("Null collection");
+
+		other = compatible(other);
+		share();
+		return treeOf(difference(root, other.root, new Halves<E>()));
+	}
+
+	/**
+	 * Splits this tree in O(log n): removes the elements greater than or equal
+	 * 	to the given element from this tree and returns them as a new tree
+	 * @param data - the element to split at
+	 * @return a tree of the elements greater than or equal to data
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public BST<E> split(E data) {
+		if ( data == null )
+			throw new NullPointerException("Null data");
+
+		Halves<E> halves = new Halves<E>();
+		int originalSize = size;
+		split(root, data, halves);
+		Node<E> upper = halves.right;
+		if ( halves.found )
+			upper = join(null, halves.key, upper);
+		root = halves.left;
+		updateSize(originalSize);
+		return treeOf(upper);
+	}
+
+	/**
+	 * Appends the elements of the specified tree, all of which must be greater
+	 * 	than every element of this tree, in O(log n). The specified tree is not
+	 * 	modified; both trees share Nodes afterwards
+	 * @param other - tree of larger elements
+	 * @throw NullPointerException - if the specified tree is null
+	 * @throw IllegalArgumentException - if an element of the specified tree is not
+	 * 	greater than every element of this tree
+	 */
+	public void join(BST<E> other) {
+		if ( other == null )
+			throw new NullPointerException("Null collection");
+		if ( other.root == null )
+			return;
+		if ( root != null && compare(last(), other.first()) >= 0 )
+			throw new IllegalArgumentException("Elements of the trees overlap");
+
+		int originalSize = size;
+		other = compatible(other);
+		other.share();
+		root = join(root, other.root, new Halves<E>());
+		updateSize(originalSize);
 	}
 
 	/**
 	 * Returns a shallow copy of this tree instance (i.e., the elements
-	 * 	themselves are not cloned but the nodes are)
+	 * 	themselves are not cloned but the nodes are, lazily, as either tree
+	 * 	is modified)
 	 * @return a shallow copy of this tree
 	 */
 	public BST<E> clone() {
-		BST<E> cloned = new BST<E>();
-		Iterator<E> preiter = preorderIterator();
-		while ( preiter.hasNext() ) {
-			E element = preiter.next();
-			cloned.add(element);
+		return snapshot();
+	}
+
+	/**
+	 * Starts collecting operation statistics for this tree: call counts and
+	 * 	latencies of add, remove, contains and the navigation methods, search
+	 * 	depths, comparisons and rotations. While enabled, each measured call
+	 * 	is also reported to JDK Flight Recorder as a BSTOperationEvent. Does
+	 * 	nothing if statistics are already being collected
+	 */
+	public void enableMetrics() {
+		if ( metrics == null )
+			metrics = new BSTMetrics();
+	}
+
+	/**
+	 * Stops collecting operation statistics and discards the ones collected
+	 */
+	public void disableMetrics() {
+		metrics = null;
+	}
+
+	/**
+	 * Sets the operation statistics collected so far back to zero
+	 */
+	public void resetMetrics() {
+		if ( metrics != null )
+			metrics.reset();
+	}
+
+	/**
+	 * Returns the operation statistics collected since enableMetrics() or
+	 * 	resetMetrics(), with the current size and height of this tree
+	 * @return a snapshot of the statistics, or null if they are not collected
+	 */
+	public BSTMetrics.Snapshot metrics() {
+		BSTMetrics metrics = this.metrics;
+		return ( metrics == null ) ? null : metrics.snapshot(size, height());
+	}
+
+	/**
+	 * Runs and measures an operation. Its comparisons are counted by compare()
+	 * 	as it runs, and its depth is the number of Nodes on the path it took:
+	 * 	one per comparison, plus those it walked down to a predecessor
+	 * @param operation - the operation being measured
+	 * @param data - the element the operation searches for
+	 * @param call - runs the operation
+	 * @return the result of the operation
+	 */
+	private <T> T measure(BSTMetrics.Operation operation, Object data, Supplier<T> call) {
+		BSTMetrics metrics = this.metrics;
+		int comparedBefore = compared, walkedBefore = walked;
+		BSTOperationEvent event = new BSTOperationEvent();
+		event.begin();
+		long start = System.nanoTime();
+		T result = call.get();
+		long elapsed = System.nanoTime() - start;
+		event.end();
+		int comparisons = compared - comparedBefore;
+		int depth = comparisons + walked - walkedBefore;
+		metrics.record(operation, elapsed, depth, comparisons);
+		if ( event.shouldCommit() ) {
+			event.operation = operation.name();
+			event.depth = depth;
+			event.size = size;
+			event.height = height();
+			event.idealHeight = Integer.SIZE - Integer.numberOfLeadingZeros(size);
+			event.commit();
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the ordering and the summary of the tree, then the number of
+	 * 	elements and the elements in ascending order
+	 * @param out - stream to write to
+	 * @throw NotSerializableException - if the Comparator, the key function or
+	 * 	the Aggregator is not Serializable
+	 * @throw IOException - if the stream cannot be written
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		for ( Object function : new Object[] { comparator, key, aggregator } )
+			if ( function != null && !( function instanceof Serializable ) )
+				throw new NotSerializableException(function.getClass().getName());
+
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for ( E data : this )
+			out.writeObject(data);
+	}
+
+	/**
+	 * Reads the elements written by writeObject() and builds a balanced tree
+	 * 	from them in linear time. The size read from the stream is not trusted
+	 * 	to allocate the array at once; it grows as elements actually arrive
+	 * @param in - stream to read from
+	 * @throw IOException - if the stream cannot be read or the elements are
+	 * 	not distinct and in ascending order
+	 * @throw ClassNotFoundException - if the class of an element cannot be found
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int length = in.readInt();
+		if ( length < 0 )
+			throw new InvalidObjectException("Negative size");
+
+		Object[] array = new Object[Math.min(length, 1 << 10)];
+		for ( int i = 0; i < length; i ++ ) {
+			if ( i == array.length )
+				array = Arrays.copyOf(array, (int) Math.min(length, 2L * i));
+			array[i] = in.readObject();
+			if ( array[i] == null )
+				throw new InvalidObjectException("Null data");
+			if ( i > 0 && compare((E) array[i - 1], (E) array[i]) >= 0 )
+				throw new InvalidObjectException("Elements not in strictly ascending order");
 		}
-		return cloned;
+		root = build(array, 0, length);
+		size = length;
+	}
+
+	/**
+	 * Returns an immutable copy of this tree packed into arrays for fast lookups.
+	 * 	Later changes to this tree are not reflected in the copy
+	 * @return a FrozenBST object with the elements of this tree
+	 */
+	public FrozenBST<E> freeze() {
+		return new FrozenBST<E>(toArray(), comparator);
 	}
 
 	/**
@@ -678,127 +2126,406 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 	 */
 	public Object[] toArray() {
 		Object[] array = new Object[size];
-		for ( int i = 0; i < size; i ++ ) {
-			array[i] = get(i);
+		ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+		Node<E> current = root;
+		int i = 0;
+		while ( current != null || !stack.isEmpty() ) {
+			while ( current != null ) {
+				stack.push(current);
+				current = current.left;
+			}
+			current = stack.pop();
+			array[i ++] = current.data;
+			current = current.right;
 		}
 		return array;
 	}
 
+	/**
+	 * Returns an array containing all of the elements in this tree in ascending order;
+	 * 	the runtime type of the returned array is that of the specified array
+	 * @param a - the array into which the elements are to be stored, if it is big enough;
+	 * 	otherwise, a new array of the same runtime type is allocated for this purpose
+	 * @return an array containing all of the elements in this tree
+	 * @throw NullPointerException - if the specified array is null
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		if ( a.length < size )
+			a = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+
+		int i = 0;
+		for ( E data : this )
+			a[i ++] = (T) data;
+		if ( a.length > size )
+			a[size] = null;
+		return a;
+	}
+
+	/**
+	 * Returns the comparator used to order the elements in this tree
+	 * @return the comparator, or null if this tree uses the natural ordering of its elements
+	 */
+	public Comparator<? super E> comparator() {
+		return comparator;
+	}
+
+	/**
+	 * Returns a reverse order view of the elements contained in this tree. The view
+	 * 	is backed by this tree, so changes to one are reflected in the other
+	 * @return a reverse order view of this tree
+	 */
+	public NavigableSet<E> descendingSet() {
+		return new SubSet(null, true, null, true, true);
+	}
+
+	/**
+	 * Returns an iterator over the elements in this tree in descending order
+	 * @return an iterator over the elements in this tree in descending order
+	 */
+	public Iterator<E> descendingIterator() {
+		return new Iter(null, true, null, true, true);
+	}
+
+	/**
+	 * Returns a view of the portion of this tree whose elements range from fromElement
+	 * 	to toElement. The view is backed by this tree, so changes to one are reflected
+	 * 	in the other
+	 * @param fromElement - low endpoint of the returned view
+	 * @param fromInclusive - true if the low endpoint is to be included in the view
+	 * @param toElement - high endpoint of the returned view
+	 * @param toInclusive - true if the high endpoint is to be included in the view
+	 * @return a view of the portion of this tree within the range
+	 * @throw NullPointerException - if fromElement or toElement is null
+	 * @throw IllegalArgumentException - if fromElement is greater than toElement
+	 */
+	public NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+		if ( fromElement == null || toElement == null )
+			throw new NullPointerException("Null element indicated");
+
+		if ( compare(fromElement, toElement) > 0 )
+			throw new IllegalArgumentException("fromElement > toElement");
+
+		return new SubSet(fromElement, fromInclusive, toElement, toInclusive, false);
+	}
+
+	/**
+	 * Returns a view of the portion of this tree whose elements are less than (or equal
+	 * 	to, if inclusive is true) toElement
+	 * @param toElement - high endpoint of the returned view
+	 * @param inclusive - true if the high endpoint is to be included in the view
+	 * @return a view of the portion of this tree below toElement
+	 * @throw NullPointerException - if toElement is null
+	 */
+	public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+		if ( toElement == null )
+			throw new NullPointerException("Null element indicated");
+
+		return new SubSet(null, true, toElement, inclusive, false);
+	}
+
+	/**
+	 * Returns a view of the portion of this tree whose elements are greater than (or
+	 * 	equal to, if inclusive is true) fromElement
+	 * @param fromElement - low endpoint of the returned view
+	 * @param inclusive - true if the low endpoint is to be included in the view
+	 * @return a view of the portion of this tree above fromElement
+	 * @throw NullPointerException - if fromElement is null
+	 */
+	public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+		if ( fromElement == null )
+			throw new NullPointerException("Null element indicated");
+
+		return new SubSet(fromElement, inclusive, null, true, false);
+	}
+
+	/**
+	 * Equivalent to subSet(fromElement, true, toElement, false)
+	 */
+	public SortedSet<E> subSet(E fromElement, E toElement) {
+		return subSet(fromElement, true, toElement, false);
+	}
+
+	/**
+	 * Equivalent to headSet(toElement, false)
+	 */
+	public SortedSet<E> headSet(E toElement) {
+		return headSet(toElement, false);
+	}
+
+	/**
+	 * Equivalent to tailSet(fromElement, true)
+	 */
+	public SortedSet<E> tailSet(E fromElement) {
+		return tailSet(fromElement, true);
+	}
+
 	/**
 	 * Returns a string representation of this tree
 	 * @return a string representation of this collection
 	 */
 	@Override
 	public String toString() {
-		if ( root == null )
-			return "[]";
 		StringBuilder tree = new StringBuilder();
-		tree.append("[");
-		int counter = 0;
-		for ( E data : this ) {
-			if ( counter < size - 1 ) {
-				tree.append(String.valueOf(data));
-				tree.append(", ");
-			} else {
-				tree.append(String.valueOf(data));
-			}
-			counter ++;
+		try {
+			writeTo(tree, Integer.MAX_VALUE);
+		} catch ( IOException e ) {
+			throw new UncheckedIOException(e);
 		}
-		tree.append("]");
 		return tree.toString();
 	}
 
+	/**
+	 * Writes the elements of this tree in ascending order, in the format of
+	 * 	toString(), without building the whole string. Once maxElements
+	 * 	elements are written, the rest are summarized by their number
+	 * @param out - where to write
+	 * @param maxElements - the number of elements to write at most
+	 * @throw IOException - if out cannot be written
+	 * @throw NullPointerException - if out is null
+	 * @throw IllegalArgumentException - if maxElements is negative
+	 */
+	public void writeTo(Appendable out, int maxElements) throws IOException {
+		if ( out == null )
+			throw new NullPointerException("Null output");
+		if ( maxElements < 0 )
+			throw new IllegalArgumentException("Negative element budget");
+
+		out.append('[');
+		int written = 0;
+		for ( Iterator<E> iter = iterator(); iter.hasNext() && written < maxElements; written ++ ) {
+			if ( written > 0 )
+				out.append(", ");
+			out.append(String.valueOf(iter.next()));
+		}
+		if ( written < size )
+			out.append(( written > 0 ) ? ", " : "").append("... ").append(String.valueOf(size - written))
+				.append(" more");
+		out.append(']');
+	}
+
 	/**
 	 * Produces tree like string representation of this tree. Returns a string
 	 * 	representation of this tree in a tree-like format
 	 * @return string containing tree-like representation of this tree
 	 */
 	public String toStringTreeFormat() {
-		if ( root == null ) {
-			return "null";
-		}
 		StringBuilder tree = new StringBuilder();
-		preOrderPrint(root, 0, tree);
+		try {
+			writeTreeFormat(tree, Integer.MAX_VALUE, Integer.MAX_VALUE);
+		} catch ( IOException e ) {
+			throw new UncheckedIOException(e);
+		}
 		return tree.toString();
 	}
 
 	/**
-	 * Produces tree like string representation of this tree
+	 * Writes this tree in the format of toStringTreeFormat(): one line per Node
+	 * 	in preorder, indented by its depth, with null for missing children.
+	 * 	The walk keeps an explicit stack of O(height) entries and writes the
+	 * 	indents from one shared buffer. A Node at maxDepth is written without
+	 * 	its subtree, followed by a line giving the number of elements left out,
+	 * 	and once maxNodes Nodes are written the rest are summarized by their number
+	 * @param out - where to write
+	 * @param maxNodes - the number of Nodes to write at most
+	 * @param maxDepth - the depth of the deepest Nodes to write, the root being at depth 0
+	 * @throw IOException - if out cannot be written
+	 * @throw NullPointerException - if out is null
+	 * @throw IllegalArgumentException - if maxNodes or maxDepth is negative
 	 */
-	private void preOrderPrint(Node<E> root, int level, StringBuilder tree) {
-		if ( root != null ) {
-			String spaces = "\n";
-			if ( level > 0 ) {
-				for ( int i = 0; i < level - 1; i++ )
-					spaces += "   ";
-				spaces += "|--";
-			}
-			tree.append(spaces);
-			tree.append(root.data);
-			preOrderPrint(root.left, level + 1, tree);
-			preOrderPrint(root.right, level + 1, tree);
+	public void writeTreeFormat(Appendable out, int maxNodes, int maxDepth) throws IOException {
+		if ( out == null )
+			throw new NullPointerException("Null output");
+		if ( maxNodes < 0 || maxDepth < 0 )
+			throw new IllegalArgumentException("Negative budget");
+
+		if ( root == null ) {
+			out.append("null");
+			return;
 		}
 
-		else {
-			String spaces = "\n";
+		// each Node popped pushes at most its two children, so the stack holds
+		// at most one pending right child per level plus the current Node
+		@SuppressWarnings("unchecked")
+		Node<E>[] nodes = (Node<E>[]) new Node<?>[height() + 2];
+		int[] levels = new int[nodes.length];
+		StringBuilder indent = new StringBuilder();
+		int depth = 0;
+		int written = 0, skipped = 0;
+		nodes[depth ++] = root;
+
+		while ( depth > 0 ) {
+			Node<E> node = nodes[-- depth];
+			int level = levels[depth];
+			if ( node != null && written == maxNodes ) {
+				out.append('\n').append("... ").append(String.valueOf(size - written - skipped))
+					.append(" more");
+				return;
+			}
+
+			out.append('\n');
 			if ( level > 0 ) {
-				for ( int i = 0; i < level - 1; i++ )
-					spaces += "   ";
-				spaces += "|--";
+				while ( indent.length() < 3 * ( level - 1 ) )
+					indent.append("   ");
+				out.append(indent, 0, 3 * ( level - 1 )).append("|--");
 			}
-			tree.append(spaces);
-			tree.append("null");
+
+			if ( node == null ) {
+				out.append("null");
+				continue;
+			}
+			out.append(String.valueOf(node.data));
+			written ++;
+
+			if ( level == maxDepth ) {
+				if ( node.size > 1 ) {
+					out.append('\n');
+					while ( indent.length() < 3 * level )
+						indent.append("   ");
+					out.append(indent, 0, 3 * level).append("|--... ")
+						.append(String.valueOf(node.size - 1)).append(" more");
+				}
+				skipped += node.size - 1;
+				continue;
+			}
+
+			nodes[depth] = node.right;
+			levels[depth ++] = level + 1;
+			nodes[depth] = node.left;
+			levels[depth ++] = level + 1;
 		}
 	}
 
 	/**
-	 * An inorder iterator of a BST object
+	 * Checks whether an element lies below a lower bound
+	 * @param data - element to check
+	 * @param lo - lower bound, or null if there is none
+	 * @param loInclusive - whether the lower bound itself is in range
+	 * @return true if data is below the bound
+	 */
+	private boolean tooLow(E data, E lo, boolean loInclusive) {
+		if ( lo == null )
+			return false;
+		int comp = compare(data, lo);
+		return comp < 0 || ( comp == 0 && !loInclusive );
+	}
+
+	/**
+	 * Checks whether an element lies above an upper bound
+	 * @param data - element to check
+	 * @param hi - upper bound, or null if there is none
+	 * @param hiInclusive - whether the upper bound itself is in range
+	 * @return true if data is above the bound
+	 */
+	private boolean tooHigh(E data, E hi, boolean hiInclusive) {
+		if ( hi == null )
+			return false;
+		int comp = compare(data, hi);
+		return comp > 0 || ( comp == 0 && !hiInclusive );
+	}
+
+	/**
+	 * An inorder iterator of a BST object, optionally restricted to a range and
+	 * 	optionally descending. It keeps only the path to the next element, so it
+	 * 	holds O(height) Nodes and does its work lazily
 	 */
 	class Iter implements Iterator<E> {
-		ArrayList<E> nodes;
-		int index;
+		/**
+		 * Nodes whose data and far subtree are still to be visited
+		 */
+		ArrayDeque<Node<E>> stack;
 
 		/**
-		 * default constructor
+		 * bounds of the iteration, null if unbounded on that side
+		 */
+		E lo, hi;
+
+		/**
+		 * whether the bounds themselves are included
+		 */
+		boolean loInclusive, hiInclusive;
+
+		/**
+		 * whether the elements are returned in descending order
+		 */
+		boolean descending;
+
+		/**
+		 * the element returned by the last call to next(), or null
+		 */
+		E lastReturned;
+
+		/**
+		 * the modCount this iterator expects the tree to have
+		 */
+		int expectedModCount;
+
+		/**
+		 * default constructor, iterates over the whole tree in ascending order
 		 */
 	    public Iter() {
-	        nodes = new ArrayList<E>();
-	        index = -1;
-	        inorder(root);
+	        this(null, true, null, true, false);
 	    }
 
 	    /**
-	     * get an ArrayList stores all the elements in this BST in order
-	     * @return an ArrayList stores all the elements in this BST in order
+	     * constructs an iterator over a range of the tree
+	     * @param lo - lower bound, or null if there is none
+	     * @param loInclusive - whether the lower bound is included
+	     * @param hi - upper bound, or null if there is none
+	     * @param hiInclusive - whether the upper bound is included
+	     * @param descending - whether to iterate in descending order
 	     */
-	    public ArrayList<E> getNodes() {
-	    	return nodes;
+	    Iter(E lo, boolean loInclusive, E hi, boolean hiInclusive, boolean descending) {
+	    	this.lo = lo;
+	    	this.loInclusive = loInclusive;
+	    	this.hi = hi;
+	    	this.hiInclusive = hiInclusive;
+	    	this.descending = descending;
+	        stack = new ArrayDeque<Node<E>>();
+	        expectedModCount = modCount;
+
+	        // push the path to the first element in range, skipping the
+	        // subtrees that lie entirely before it
+	        Node<E> current = root;
+	        while ( current != null ) {
+	        	if ( descending ? tooHigh(current.data, hi, hiInclusive)
+	        			: tooLow(current.data, lo, loInclusive) )
+	        		current = descending ? current.left : current.right;
+	        	else {
+	        		stack.push(current);
+	        		current = descending ? current.right : current.left;
+	        	}
+	        }
 	    }
 
 	    /**
-	     * add all the elements in the BST to an ArrayList in order
-	     * @param root - the root Node
+	     * pushes a Node and all of its near descendants onto the stack
+	     * @param node - the first Node to push
 	     */
-	    private void inorder(Node<E> root) {
-	    	if ( root == null ) {
-	    		return;
+	    private void pushNear(Node<E> node) {
+	    	while ( node != null ) {
+	    		stack.push(node);
+	    		node = descending ? node.right : node.left;
 	    	}
-
-	    	inorder(root.left);
-	    	nodes.add(root.data);
-	    	inorder(root.right);
 	    }
 
 	    /**
 		 * get the next element
 		 * @return the next element
 		 * @throw NoSuchElementException if the current element is null
+		 * @throw ConcurrentModificationException if the tree was modified
+		 * 	other than through this iterator
 		 */
 	    @Override
 		public E next() {
-	    	if (root == null) throw new
+	    	if ( modCount != expectedModCount )
+	    		throw new ConcurrentModificationException();
+	    	if ( !hasNext() ) throw new
 				NoSuchElementException("reached the end of this collection");
-			return nodes.get( ++ index );
+	    	Node<E> node = stack.pop();
+	    	pushNear(descending ? node.left : node.right);
+	    	lastReturned = node.data;
+			return lastReturned;
 	    }
 
 		/**
@@ -807,7 +2534,44 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 		 */
 	    @Override
 	    public boolean hasNext() {
-			return index + 1 < nodes.size();
+	    	if ( stack.isEmpty() )
+	    		return false;
+	    	E data = stack.peek().data;
+			return descending ? !tooLow(data, lo, loInclusive)
+					: !tooHigh(data, hi, hiInclusive);
+	    }
+
+	    /**
+	     * removes the last element returned by next() from the tree
+	     * @throw IllegalStateException if next() has not been called, or remove()
+	     * 	has already been called after the last call to next()
+	     * @throw ConcurrentModificationException if the tree was modified
+		 * 	other than through this iterator
+	     */
+	    @Override
+	    public void remove() {
+	    	if ( lastReturned == null )
+	    		throw new IllegalStateException("next() has not been called");
+	    	if ( modCount != expectedModCount )
+	    		throw new ConcurrentModificationException();
+
+	    	BST.this.remove(lastReturned);
+	    	expectedModCount = modCount;
+
+	    	// rebalancing may have moved the Nodes on the stack, so rebuild
+	    	// the path to the elements after the removed one
+	    	stack.clear();
+	    	Node<E> current = root;
+	    	while ( current != null ) {
+	    		int comp = compare(lastReturned, current.data);
+	    		if ( descending ? comp > 0 : comp < 0 ) {
+	    			stack.push(current);
+	    			current = descending ? current.right : current.left;
+	    		}
+	    		else
+	    			current = descending ? current.left : current.right;
+	    	}
+	    	lastReturned = null;
 	    }
 	}
 
@@ -822,46 +2586,457 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 	}
 
 	/**
-	 * An preorder iterator of a BST object
+	 * A live view of a range of a BST object, in ascending or descending order.
+	 * 	Bounds are kept in ascending terms; a null bound means the view is
+	 * 	unbounded on that side
 	 */
-	class PreIter implements Iterator<E> {
-		ArrayList<E> nodes;
-		int index;
+	class SubSet extends AbstractSet<E> implements NavigableSet<E> {
+		/**
+		 * bounds of the view, null if unbounded on that side
+		 */
+		final E lo, hi;
 
 		/**
-		 * default constructor
+		 * whether the bounds themselves are in the view
 		 */
-	    public PreIter() {
-	        nodes = new ArrayList<E>();
-	        index = -1;
-	        preorder(root);
-	    }
+		final boolean loInclusive, hiInclusive;
 
-	    /**
-	     * add all the elements in the BST to an ArrayList in preorder
-	     * @param root - the root Node
-	     */
-	    private void preorder(Node<E> root) {
-	    	if ( root == null ) {
-	    		return;
-	    	}
+		/**
+		 * whether this view is in descending order
+		 */
+		final boolean descending;
+
+		/**
+		 * Constructs a view of a range of the enclosing tree
+		 * @param lo - lower bound, or null if there is none
+		 * @param loInclusive - whether the lower bound is in the view
+		 * @param hi - upper bound, or null if there is none
+		 * @param hiInclusive - whether the upper bound is in the view
+		 * @param descending - whether the view is in descending order
+		 */
+		SubSet(E lo, boolean loInclusive, E hi, boolean hiInclusive, boolean descending) {
+			this.lo = lo;
+			this.loInclusive = loInclusive;
+			this.hi = hi;
+			this.hiInclusive = hiInclusive;
+			this.descending = descending;
+		}
+
+		/**
+		 * @param data - element to check
+		 * @return true if the element lies within the bounds of this view
+		 */
+		private boolean inRange(E data) {
+			return !tooLow(data, lo, loInclusive) && !tooHigh(data, hi, hiInclusive);
+		}
+
+		/**
+		 * @param data - bound of a new view
+		 * @param inclusive - whether the new bound is inclusive
+		 * @return true if a new view may use the bound without exceeding this view
+		 */
+		private boolean inRange(E data, boolean inclusive) {
+			return inclusive ? inRange(data)
+					: !tooLow(data, lo, true) && !tooHigh(data, hi, true);
+		}
+
+		/**
+		 * @return the lowest element of the view, or null if it is empty
+		 */
+		private E lowest() {
+			E data;
+			if ( lo == null )
+				data = ( root == null ) ? null : BST.this.first();
+			else
+				data = loInclusive ? BST.this.ceiling(lo) : BST.this.higher(lo);
+			return ( data == null || tooHigh(data, hi, hiInclusive) ) ? null : data;
+		}
+
+		/**
+		 * @return the highest element of the view, or null if it is empty
+		 */
+		private E highest() {
+			E data;
+			if ( hi == null )
+				data = ( root == null ) ? null : BST.this.last();
+			else
+				data = hiInclusive ? BST.this.floor(hi) : BST.this.lower(hi);
+			return ( data == null || tooLow(data, lo, loInclusive) ) ? null : data;
+		}
+
+		/**
+		 * Finds an element of the view next to the given one in ascending terms
+		 * @param data - the value to match
+		 * @param above - whether to look above (true) or below (false) data
+		 * @param inclusive - whether data itself matches
+		 * @return the matching element, or null if there is none in the view
+		 */
+		private E near(E data, boolean above, boolean inclusive) {
+			if ( data == null )
+				throw new NullPointerException("Null data");
+
+			if ( above && tooLow(data, lo, loInclusive) )
+				return lowest();
+			if ( !above && tooHigh(data, hi, hiInclusive) )
+				return highest();
+
+			E result;
+			if ( above )
+				result = inclusive ? BST.this.ceiling(data) : BST.this.higher(data);
+			else
+				result = inclusive ? BST.this.floor(data) : BST.this.lower(data);
+			return ( result == null || !inRange(result) ) ? null : result;
+		}
+
+		/**
+		 * @return the index in the tree of the lowest element of the view
+		 */
+		private int lowIndex() {
+			return ( lo == null ) ? 0 : rank(lo, !loInclusive);
+		}
+
+		/**
+		 * @return the index in the tree just past the highest element of the view
+		 */
+		private int highIndex() {
+			return Math.max(( hi == null ) ? size : rank(hi, hiInclusive), lowIndex());
+		}
+
+		@Override
+		public int size() {
+			return highIndex() - lowIndex();
+		}
+
+		@Override
+		public Spliterator<E> spliterator() {
+			if ( descending )
+				return NavigableSet.super.spliterator();
+			return new Split(lowIndex(), highIndex());
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return lowest() == null;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean contains(Object o) {
+			return inRange((E) o) && BST.this.contains(o);
+		}
+
+		@Override
+		public boolean add(E data) {
+			if ( !inRange(data) )
+				throw new IllegalArgumentException("Element out of range");
+			return BST.this.add(data);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean remove(Object o) {
+			return inRange((E) o) && BST.this.remove(o);
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			return new Iter(lo, loInclusive, hi, hiInclusive, descending);
+		}
+
+		@Override
+		public Iterator<E> descendingIterator() {
+			return new Iter(lo, loInclusive, hi, hiInclusive, !descending);
+		}
+
+		@Override
+		public Comparator<? super E> comparator() {
+			return descending ? Collections.reverseOrder(BST.this.comparator) : BST.this.comparator;
+		}
+
+		@Override
+		public E first() {
+			E data = descending ? highest() : lowest();
+			if ( data == null )
+				throw new NoSuchElementException("Empty tree");
+			return data;
+		}
+
+		@Override
+		public E last() {
+			E data = descending ? lowest() : highest();
+			if ( data == null )
+				throw new NoSuchElementException("Empty tree");
+			return data;
+		}
+
+		@Override
+		public E lower(E data) {
+			return near(data, descending, false);
+		}
+
+		@Override
+		public E floor(E data) {
+			return near(data, descending, true);
+		}
+
+		@Override
+		public E ceiling(E data) {
+			return near(data, !descending, true);
+		}
+
+		@Override
+		public E higher(E data) {
+			return near(data, !descending, false);
+		}
+
+		@Override
+		public E pollFirst() {
+			E data = descending ? highest() : lowest();
+			if ( data != null )
+				BST.this.remove(data);
+			return data;
+		}
+
+		@Override
+		public E pollLast() {
+			E data = descending ? lowest() : highest();
+			if ( data != null )
+				BST.this.remove(data);
+			return data;
+		}
+
+		@Override
+		public NavigableSet<E> descendingSet() {
+			return new SubSet(lo, loInclusive, hi, hiInclusive, !descending);
+		}
+
+		@Override
+		public NavigableSet<E> subSet(E fromElement, boolean fromInclusive,
+				E toElement, boolean toInclusive) {
+			if ( fromElement == null || toElement == null )
+				throw new NullPointerException("Null element indicated");
+
+			if ( descending ) {
+				E swap = fromElement;
+				fromElement = toElement;
+				toElement = swap;
+				boolean swapInclusive = fromInclusive;
+				fromInclusive = toInclusive;
+				toInclusive = swapInclusive;
+			}
+			if ( compare(fromElement, toElement) > 0 )
+				throw new IllegalArgumentException("fromElement > toElement");
+			if ( !inRange(fromElement, fromInclusive) || !inRange(toElement, toInclusive) )
+				throw new IllegalArgumentException("Element out of range");
+
+			return new SubSet(fromElement, fromInclusive, toElement, toInclusive, descending);
+		}
+
+		@Override
+		public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+			if ( toElement == null )
+				throw new NullPointerException("Null element indicated");
+			if ( !inRange(toElement, inclusive) )
+				throw new IllegalArgumentException("Element out of range");
+
+			if ( descending )
+				return new SubSet(toElement, inclusive, hi, hiInclusive, true);
+			return new SubSet(lo, loInclusive, toElement, inclusive, false);
+		}
+
+		@Override
+		public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+			if ( fromElement == null )
+				throw new NullPointerException("Null element indicated");
+			if ( !inRange(fromElement, inclusive) )
+				throw new IllegalArgumentException("Element out of range");
+
+			if ( descending )
+				return new SubSet(lo, loInclusive, fromElement, inclusive, true);
+			return new SubSet(fromElement, inclusive, hi, hiInclusive, false);
+		}
+
+		@Override
+		public SortedSet<E> subSet(E fromElement, E toElement) {
+			return subSet(fromElement, true, toElement, false);
+		}
+
+		@Override
+		public SortedSet<E> headSet(E toElement) {
+			return headSet(toElement, false);
+		}
+
+		@Override
+		public SortedSet<E> tailSet(E fromElement) {
+			return tailSet(fromElement, true);
+		}
+	}
+
+	/**
+	 * A spliterator over a range of positions of a BST object. It splits at the
+	 * 	middle position, which the subtree sizes make exact, and walks its range
+	 * 	lazily with a stack of O(height) Nodes once traversal starts
+	 */
+	class Split implements Spliterator<E> {
+		/**
+		 * position of the next element and the position past the last one
+		 */
+		int index, fence;
+
+		/**
+		 * Nodes whose data and right subtree are still to be visited,
+		 * 	or null if traversal has not started
+		 */
+		ArrayDeque<Node<E>> stack;
+
+		/**
+		 * the modCount this spliterator expects the tree to have
+		 */
+		int expectedModCount;
+
+		/**
+		 * constructs a spliterator over the elements at positions [index, fence)
+		 * @param index - position of the first element
+		 * @param fence - position past the last element
+		 */
+		Split(int index, int fence) {
+			this.index = index;
+			this.fence = fence;
+			expectedModCount = modCount;
+		}
+
+		/**
+		 * pushes the path to the element at the current position
+		 */
+		private void seek() {
+			stack = new ArrayDeque<Node<E>>();
+			Node<E> current = root;
+			int position = index;
+			while ( current != null ) {
+				int leftSize = sizeOf(current.left);
+				if ( position < leftSize ) {
+					stack.push(current);
+					current = current.left;
+				}
+				else if ( position > leftSize ) {
+					position -= leftSize + 1;
+					current = current.right;
+				}
+				else {
+					stack.push(current);
+					break;
+				}
+			}
+		}
+
+		@Override
+		public Spliterator<E> trySplit() {
+			if ( stack != null || fence - index < 2 )
+				return null;
+
+			int mid = ( index + fence ) >>> 1;
+			Split prefix = new Split(index, mid);
+			prefix.expectedModCount = expectedModCount;
+			index = mid;
+			return prefix;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) {
+			if ( action == null )
+				throw new NullPointerException("Null action");
+			if ( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+			if ( index >= fence )
+				return false;
+
+			if ( stack == null )
+				seek();
+			Node<E> node = stack.pop();
+			for ( Node<E> next = node.right; next != null; next = next.left )
+				stack.push(next);
+			index ++;
+			action.accept(node.data);
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			while ( tryAdvance(action) )
+				;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT
+					| Spliterator.NONNULL | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+
+		@Override
+		public Comparator<? super E> getComparator() {
+			return comparator;
+		}
+	}
 
-	    	nodes.add(root.data);
-	    	preorder(root.left);
-	    	preorder(root.right);
+	/**
+	 * Returns a spliterator over the elements in this tree in ascending order. It
+	 * 	splits at subtree boundaries with exact sizes, so stream() and
+	 * 	parallelStream() divide the work evenly
+	 * @return a spliterator over the elements in this tree
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return new Split(0, size);
+	}
 
+	/**
+	 * An preorder iterator of a BST object. It keeps only the pending right
+	 * 	subtrees, so it holds O(height) Nodes and does its work lazily
+	 */
+	class PreIter implements Iterator<E> {
+		/**
+		 * roots of the subtrees still to be visited
+		 */
+		ArrayDeque<Node<E>> stack;
+
+		/**
+		 * the modCount this iterator expects the tree to have
+		 */
+		int expectedModCount;
+
+		/**
+		 * default constructor
+		 */
+	    public PreIter() {
+	        stack = new ArrayDeque<Node<E>>();
+	        expectedModCount = modCount;
+	        if ( root != null )
+	        	stack.push(root);
 	    }
 
 	    /**
 		 * get the next element
 		 * @return the next element
 		 * @throw NoSuchElementException if the current element is null
+		 * @throw ConcurrentModificationException if the tree was modified
 		 */
 	    @Override
 		public E next() {
-	    	if (root == null) throw new
+	    	if ( modCount != expectedModCount )
+	    		throw new ConcurrentModificationException();
+	    	if ( stack.isEmpty() ) throw new
 				NoSuchElementException("reached the end of this collection");
-			return nodes.get( ++ index );
+	    	Node<E> node = stack.pop();
+	    	if ( node.right != null )
+	    		stack.push(node.right);
+	    	if ( node.left != null )
+	    		stack.push(node.left);
+			return node.data;
 	    }
 
 	    /**
@@ -870,7 +3045,7 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 		 */
 	    @Override
 	    public boolean hasNext() {
-			return index + 1 < nodes.size();
+			return !stack.isEmpty();
 	    }
 	}
 
@@ -884,45 +3059,58 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 	}
 
 	/**
-	 * An postorder iterator of a BST object
+	 * An postorder iterator of a BST object. It keeps only the path to the
+	 * 	next element, so it holds O(height) Nodes and does its work lazily
 	 */
 	class PostIter implements Iterator<E> {
-		ArrayList<E> nodes;
-		int index;
+		/**
+		 * ancestors of the next element, the next element on top
+		 */
+		ArrayDeque<Node<E>> stack;
+
+		/**
+		 * the modCount this iterator expects the tree to have
+		 */
+		int expectedModCount;
 
 		/**
 		 * default constructor
 		 */
 	    public PostIter() {
-	        nodes = new ArrayList<E>();
-	        index = -1;
-	        postorder(root);
+	        stack = new ArrayDeque<Node<E>>();
+	        expectedModCount = modCount;
+	        pushFirstLeaf(root);
 	    }
 
 	    /**
-	     * add all the elements in the BST to an ArrayList in postorder
-	     * @param root - the root Node
+	     * pushes the path from a Node down to the first Node of its
+	     * 	subtree in postorder
+	     * @param node - root of the subtree
 	     */
-	    private void postorder(Node<E> root) {
-	    	if ( root == null ) {
-	    		return;
+	    private void pushFirstLeaf(Node<E> node) {
+	    	while ( node != null ) {
+	    		stack.push(node);
+	    		node = ( node.left != null ) ? node.left : node.right;
 	    	}
-
-	    	postorder(root.left);
-	    	postorder(root.right);
-	    	nodes.add(root.data);
 	    }
 
 	    /**
 		 * get the next element
 		 * @return the next element
 		 * @throw NoSuchElementException if the current element is null
+		 * @throw ConcurrentModificationException if the tree was modified
 		 */
 	    @Override
 		public E next() {
-	    	if (root == null) throw new
+	    	if ( modCount != expectedModCount )
+	    		throw new ConcurrentModificationException();
+	    	if ( stack.isEmpty() ) throw new
 				NoSuchElementException("reached the end of this collection");
-			return nodes.get( ++ index );
+	    	Node<E> node = stack.pop();
+	    	Node<E> parent = stack.peek();
+	    	if ( parent != null && parent.left == node )
+	    		pushFirstLeaf(parent.right);
+			return node.data;
 	    }
 
 	    /**
@@ -931,7 +3119,7 @@ public class BST<E extends Comparable<E>> extends Object implements Iterable<E>,
 		 */
 	    @Override
 	    public boolean hasNext() {
-			return index + 1 < nodes.size();
+			return !stack.isEmpty();
 	    }
 	}
 
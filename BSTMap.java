@@ -0,0 +1,951 @@
+package datastructure;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * This is a generic ordered map kept height balanced as an AVL tree, like BST
+ * 	with a value attached to each element. Every read-modify-write (put,
+ * 	putIfAbsent, compute, computeIfAbsent, computeIfPresent, merge, remove)
+ * 	descends from the root once, recording the path, and inserts, updates or
+ * 	unlinks the Node it ends at before rebalancing back up the same path.
+ * - it has a default constructor BSTMap<K, V>();
+ * - it has a constructor BSTMap<K, V>(Comparator<K> comparator);
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public class BSTMap<K, V> extends AbstractMap<K, V> {
+	/**
+	 * This is a nested class that provides the nodes of the map, each an entry
+	 *
+	 * @author Evelyn Wu
+	 *
+	 */
+	private static final class Node<K, V> extends Object implements Map.Entry<K, V> {
+		/**
+		 * Left and right child of the Node
+		 */
+		Node<K, V> left, right;
+
+		/**
+		 * height of the Node
+		 */
+		int height = 1;
+
+		/**
+		 * number of Nodes in the subtree rooted at this Node
+		 */
+		int size = 1;
+
+		/**
+		 * key and value stored in the Node
+		 */
+		K key;
+		V value;
+
+		/**
+		 * Constructs a new Node that stores a key and a value
+		 * @param key - key to store
+		 * @param value - value to store
+		 */
+		Node(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			V old = this.value;
+			this.value = value;
+			return old;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( !(o instanceof Map.Entry) )
+				return false;
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+			return key.equals(entry.getKey())
+				&& ( value == null ? entry.getValue() == null : value.equals(entry.getValue()) );
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ ( value == null ? 0 : value.hashCode() );
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+	/**
+	 * The first Node of the map
+	 */
+	private Node<K, V> root;
+
+	/**
+	 * The order of the keys, or null for their natural ordering
+	 */
+	private final Comparator<? super K> comparator;
+
+	/**
+	 * The number of structural modifications made to this map, used by the
+	 * 	iterators to fail fast on concurrent modification
+	 */
+	private int modCount;
+
+	/**
+	 * The entry set view, created on first use
+	 */
+	private Set<Map.Entry<K, V>> entrySet;
+
+	/**
+	 * Default constructor of a BSTMap object, ordering its keys by their
+	 * 	natural ordering
+	 */
+	public BSTMap() {
+		this(null);
+	}
+
+	/**
+	 * Constructs an empty BSTMap object ordered by a comparator
+	 * @param comparator - the order of the keys, or null for their natural ordering
+	 */
+	public BSTMap(Comparator<? super K> comparator) {
+		this.comparator = comparator;
+	}
+
+	/**
+	 * @param length - number of Nodes the path must hold
+	 * @return a new path array
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K, V> Node<K, V>[] newPath(int length) {
+		return (Node<K, V>[]) new Node<?, ?>[Math.max(length, 8)];
+	}
+
+	/**
+	 * Compares two keys in the order of this map
+	 * @param a - key to compare
+	 * @param b - key to compare with
+	 * @return a negative number, zero or a positive number as a is less than,
+	 * 	equal to or greater than b
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(K a, K b) {
+		if ( comparator != null )
+			return comparator.compare(a, b);
+		return ((Comparable<? super K>) a).compareTo(b);
+	}
+
+	/**
+	 * @param node - a Node, or null
+	 * @return height of the Node, or 0 for null
+	 */
+	private static int heightOf(Node<?, ?> node) {
+		return ( node == null ) ? 0 : node.height;
+	}
+
+	/**
+	 * @param node - a Node, or null
+	 * @return number of Nodes in its subtree, or 0 for null
+	 */
+	private static int sizeOf(Node<?, ?> node) {
+		return ( node == null ) ? 0 : node.size;
+	}
+
+	/**
+	 * updates the height and the subtree size of a given Node
+	 * @param node - Node to be updated
+	 */
+	private static void update(Node<?, ?> node) {
+		node.height = Math.max(heightOf(node.left), heightOf(node.right)) + 1;
+		node.size = sizeOf(node.left) + sizeOf(node.right) + 1;
+	}
+
+	/**
+	 * Rotates a subtree to the right around its root
+	 * @param node - root of the subtree, must have a left child
+	 * @return the new root of the subtree
+	 */
+	private static <K, V> Node<K, V> rotateRight(Node<K, V> node) {
+		Node<K, V> pivot = node.left;
+		node.left = pivot.right;
+		pivot.right = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	/**
+	 * Rotates a subtree to the left around its root
+	 * @param node - root of the subtree, must have a right child
+	 * @return the new root of the subtree
+	 */
+	private static <K, V> Node<K, V> rotateLeft(Node<K, V> node) {
+		Node<K, V> pivot = node.right;
+		node.right = pivot.left;
+		pivot.left = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	/**
+	 * Updates a Node whose children are already balanced and restores the
+	 * 	AVL property with a single or double rotation
+	 * @param node - root of the subtree to rebalance
+	 * @return the new root of the subtree
+	 */
+	private static <K, V> Node<K, V> balance(Node<K, V> node) {
+		update(node);
+		int diff = heightOf(node.left) - heightOf(node.right);
+
+		if ( diff > 1 ) {
+			if ( heightOf(node.left.left) < heightOf(node.left.right) )
+				node.left = rotateLeft(node.left);
+			return rotateRight(node);
+		}
+		if ( diff < -1 ) {
+			if ( heightOf(node.right.right) < heightOf(node.right.left) )
+				node.right = rotateRight(node.right);
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Rebalances the Nodes of a path bottom-up, relinking each rebalanced
+	 * 	subtree into its parent
+	 * @param path - Nodes from the root downwards
+	 * @param depth - number of Nodes in the path
+	 */
+	private void rebalancePath(Node<K, V>[] path, int depth) {
+		for ( int i = depth - 1; i >= 0; i -- ) {
+			Node<K, V> node = path[i];
+			Node<K, V> balanced = balance(node);
+			if ( i == 0 )
+				root = balanced;
+			else if ( path[i - 1].left == node )
+				path[i - 1].left = balanced;
+			else
+				path[i - 1].right = balanced;
+		}
+	}
+
+	/**
+	 * Allocates a buffer large enough to hold any root-to-leaf path of this
+	 * 	map, plus the slot descend() stores the Node it ends at in
+	 * @return an empty path buffer
+	 */
+	private Node<K, V>[] newPath() {
+		return newPath(heightOf(root) + 1);
+	}
+
+	/**
+	 * Descends from the root towards a key, recording the path in a buffer
+	 * 	owned by the caller, so that a nested call made by a remapping
+	 * 	function cannot overwrite it
+	 * @param key - the key to look for
+	 * @param path - receives the Nodes from the root down to the parent of the
+	 * 	Node holding the key, followed by that Node, or null if there is none;
+	 * 	the path then ends at the Node to attach a new leaf to
+	 * @return the number of Nodes above the one holding the key
+	 * @throw NullPointerException - if the key is null
+	 * @throw ClassCastException - if the key cannot be compared with the keys in this map
+	 */
+	private int descend(K key, Node<K, V>[] path) {
+		if ( key == null )
+			throw new NullPointerException("Null key");
+
+		int depth = 0;
+		Node<K, V> current = root;
+		while ( current != null ) {
+			int comp = compare(key, current.key);
+			if ( comp == 0 )
+				break;
+			path[depth ++] = current;
+			current = ( comp < 0 ) ? current.left : current.right;
+		}
+		if ( root == null )
+			compare(key, key); //type check, as a single key is never compared
+		path[depth] = current;
+		return depth;
+	}
+
+	/**
+	 * Attaches a new leaf at the end of a path recorded by descend()
+	 * @param path - the path
+	 * @param depth - number of Nodes in the path
+	 * @param key - key of the leaf
+	 * @param value - value of the leaf
+	 */
+	private void attach(Node<K, V>[] path, int depth, K key, V value) {
+		Node<K, V> node = new Node<K, V>(key, value);
+		if ( depth == 0 )
+			root = node;
+		else if ( compare(key, path[depth - 1].key) < 0 )
+			path[depth - 1].left = node;
+		else
+			path[depth - 1].right = node;
+		modCount ++;
+		rebalancePath(path, depth);
+	}
+
+	/**
+	 * Unlinks the Node a descent ended at. If it has two children, its key and
+	 * 	value are replaced by those of its predecessor, whose Node is unlinked
+	 * 	instead; the descent continues down to it from the same path
+	 * @param path - the path recorded by descend(), ending at the Node
+	 * @param depth - number of Nodes above the Node
+	 */
+	private void detach(Node<K, V>[] path, int depth) {
+		Node<K, V> node = path[depth];
+		Node<K, V> victim = node;
+		if ( node.left != null && node.right != null ) {
+			path[depth ++] = node;
+			victim = node.left;
+			while ( victim.right != null ) {
+				path[depth ++] = victim;
+				victim = victim.right;
+			}
+			node.key = victim.key;
+			node.value = victim.value;
+		}
+
+		Node<K, V> replacement = ( victim.left != null ) ? victim.left : victim.right;
+		if ( depth == 0 )
+			root = replacement;
+		else if ( path[depth - 1].left == victim )
+			path[depth - 1].left = replacement;
+		else
+			path[depth - 1].right = replacement;
+		modCount ++;
+		rebalancePath(path, depth);
+	}
+
+	/**
+	 * Returns the Node holding a key
+	 * @param key - the key
+	 * @return the Node, or null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	private Node<K, V> find(Object key) {
+		if ( key == null )
+			throw new NullPointerException("Null key");
+
+		Node<K, V> current = root;
+		while ( current != null ) {
+			int comp = compare((K) key, current.key);
+			if ( comp == 0 )
+				return current;
+			current = ( comp < 0 ) ? current.left : current.right;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of key-value mappings in this map
+	 * @return the number of key-value mappings in this map
+	 */
+	@Override
+	public int size() {
+		return sizeOf(root);
+	}
+
+	/**
+	 * Returns true if this map contains no key-value mappings
+	 * @return true if this map contains no key-value mappings
+	 */
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+	 * Returns true if this map contains a mapping for the specified key
+	 * @param key - key whose presence in this map is to be tested
+	 * @return true if this map contains a mapping for the specified key
+	 * @throw NullPointerException - if the specified key is null
+	 * @throw ClassCastException - if the key cannot be compared with the keys in this map
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return find(key) != null;
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or null if this
+	 * 	map contains no mapping for the key
+	 * @param key - the key whose associated value is to be returned
+	 * @return the value, or null if there is no mapping for the key
+	 * @throw NullPointerException - if the specified key is null
+	 * @throw ClassCastException - if the key cannot be compared with the keys in this map
+	 */
+	@Override
+	public V get(Object key) {
+		Node<K, V> node = find(key);
+		return ( node == null ) ? null : node.value;
+	}
+
+	/**
+	 * Associates the specified value with the specified key in this map
+	 * @param key - key with which the specified value is to be associated
+	 * @param value - value to be associated with the specified key
+	 * @return the previous value associated with key, or null if there was none
+	 * @throw NullPointerException - if the specified key is null
+	 */
+	@Override
+	public V put(K key, V value) {
+		Node<K, V>[] path = newPath();
+		int depth = descend(key, path);
+		if ( path[depth] != null )
+			return path[depth].setValue(value);
+		attach(path, depth, key, value);
+		return null;
+	}
+
+	/**
+	 * Associates the specified value with the specified key unless the key is
+	 * 	already mapped to a non-null value
+	 * @param key - key with which the specified value is to be associated
+	 * @param value - value to be associated with the specified key
+	 * @return the current value associated with key, or null if there was none
+	 * @throw NullPointerException - if the specified key is null
+	 */
+	@Override
+	public V putIfAbsent(K key, V value) {
+		Node<K, V>[] path = newPath();
+		int depth = descend(key, path);
+		Node<K, V> node = path[depth];
+		if ( node == null ) {
+			attach(path, depth, key, value);
+			return null;
+		}
+		if ( node.value != null )
+			return node.value;
+		node.value = value;
+		return null;
+	}
+
+	/**
+	 * Removes the mapping for a key from this map if it is present
+	 * @param key - key whose mapping is to be removed from the map
+	 * @return the previous value associated with key, or null if there was none
+	 * @throw NullPointerException - if the specified key is null
+	 * @throw ClassCastException - if the key cannot be compared with the keys in this map
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		Node<K, V>[] path = newPath();
+		int depth = descend((K) key, path);
+		if ( path[depth] == null )
+			return null;
+		V old = path[depth].value;
+		detach(path, depth);
+		return old;
+	}
+
+	/**
+	 * If the specified key is not already associated with a non-null value,
+	 * 	computes its value with the mapping function and enters it unless it is null
+	 * @param key - key with which the value is to be associated
+	 * @param mappingFunction - the function to compute a value
+	 * @return the current (existing or computed) value associated with the
+	 * 	specified key, or null if the computed value is null
+	 * @throw NullPointerException - if the key or the mapping function is null
+	 * @throw ConcurrentModificationException - if the function modified this map
+	 */
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		if ( mappingFunction == null )
+			throw new NullPointerException("Null function");
+
+		Node<K, V>[] path = newPath();
+		int depth = descend(key, path);
+		Node<K, V> node = path[depth];
+		if ( node != null && node.value != null )
+			return node.value;
+
+		int expectedModCount = modCount;
+		V value = mappingFunction.apply(key);
+		if ( value == null ) {
+			if ( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+			return null;
+		}
+		return remap(path, depth, key, value, expectedModCount);
+	}
+
+	/**
+	 * If the value for the specified key is present and non-null, computes a
+	 * 	new mapping from the key and its current value, removing it if the new
+	 * 	value is null
+	 * @param key - key with which the value is to be associated
+	 * @param remappingFunction - the function to compute a value
+	 * @return the new value associated with the specified key, or null if none
+	 * @throw NullPointerException - if the key or the remapping function is null
+	 * @throw ConcurrentModificationException - if the function modified this map
+	 */
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		if ( remappingFunction == null )
+			throw new NullPointerException("Null function");
+
+		Node<K, V>[] path = newPath();
+		int depth = descend(key, path);
+		Node<K, V> node = path[depth];
+		if ( node == null || node.value == null )
+			return null;
+		int expectedModCount = modCount;
+		V value = remappingFunction.apply(key, node.value);
+		return remap(path, depth, key, value, expectedModCount);
+	}
+
+	/**
+	 * Computes a mapping for the specified key and its current mapped value
+	 * 	(or null if there is no current mapping), removing it if the new value is null
+	 * @param key - key with which the value is to be associated
+	 * @param remappingFunction - the function to compute a value
+	 * @return the new value associated with the specified key, or null if none
+	 * @throw NullPointerException - if the key or the remapping function is null
+	 * @throw ConcurrentModificationException - if the function modified this map
+	 */
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		if ( remappingFunction == null )
+			throw new NullPointerException("Null function");
+
+		Node<K, V>[] path = newPath();
+		int depth = descend(key, path);
+		Node<K, V> node = path[depth];
+		int expectedModCount = modCount;
+		V value = remappingFunction.apply(key, ( node == null ) ? null : node.value);
+		return remap(path, depth, key, value, expectedModCount);
+	}
+
+	/**
+	 * If the specified key is not already associated with a non-null value,
+	 * 	associates it with the given value; otherwise replaces the value with
+	 * 	the result of the remapping function, or removes it if the result is null
+	 * @param key - key with which the resulting value is to be associated
+	 * @param value - the value to use if there is none
+	 * @param remappingFunction - the function to recompute a value if one is present
+	 * @return the new value associated with the specified key, or null if none
+	 * @throw NullPointerException - if the key, the value or the remapping function is null
+	 * @throw ConcurrentModificationException - if the function modified this map
+	 */
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		if ( value == null || remappingFunction == null )
+			throw new NullPointerException("Null argument");
+
+		Node<K, V>[] path = newPath();
+		int depth = descend(key, path);
+		Node<K, V> node = path[depth];
+		int expectedModCount = modCount;
+		if ( node != null && node.value != null )
+			value = remappingFunction.apply(node.value, value);
+		return remap(path, depth, key, value, expectedModCount);
+	}
+
+	/**
+	 * Stores the result of a remapping at the end of a path recorded by
+	 * 	descend(). The path is still valid as long as no Node was attached or
+	 * 	unlinked since, which modCount tells; a nested call that only
+	 * 	replaced a value leaves the shape of the tree, and the path, alone
+	 * @param path - the path, ending at the Node holding the key or null
+	 * @param depth - number of Nodes above that Node
+	 * @param key - the key descended to
+	 * @param value - the new value, or null to remove the mapping
+	 * @param expectedModCount - modCount before the remapping function ran
+	 * @return value
+	 * @throw ConcurrentModificationException - if the map was modified since the descent
+	 */
+	private V remap(Node<K, V>[] path, int depth, K key, V value, int expectedModCount) {
+		if ( modCount != expectedModCount )
+			throw new ConcurrentModificationException();
+
+		Node<K, V> node = path[depth];
+		if ( value == null ) {
+			if ( node != null )
+				detach(path, depth);
+		}
+		else if ( node != null )
+			node.value = value;
+		else
+			attach(path, depth, key, value);
+		return value;
+	}
+
+	/**
+	 * Removes all of the mappings from this map
+	 */
+	@Override
+	public void clear() {
+		root = null;
+		modCount ++;
+	}
+
+	/**
+	 * Returns the comparator used to order the keys in this map
+	 * @return the comparator, or null if this map uses the natural ordering of its keys
+	 */
+	public Comparator<? super K> comparator() {
+		return comparator;
+	}
+
+	/**
+	 * Finds the nearest Node to a key
+	 * @param key - the key to match
+	 * @param above - whether to look above (true) or below (false) key
+	 * @param inclusive - whether key itself matches
+	 * @return the matching Node, or null if there is none
+	 * @throw NullPointerException - if the key is null
+	 */
+	private Node<K, V> near(K key, boolean above, boolean inclusive) {
+		if ( key == null )
+			throw new NullPointerException("Null key");
+
+		Node<K, V> current = root;
+		Node<K, V> best = null;
+		while ( current != null ) {
+			int comp = compare(key, current.key);
+			if ( comp == 0 && inclusive )
+				return current;
+			if ( above ? comp < 0 : comp > 0 ) {
+				best = current;
+				current = above ? current.left : current.right;
+			}
+			else
+				current = above ? current.right : current.left;
+		}
+		return best;
+	}
+
+	/**
+	 * @param node - a Node, or null
+	 * @return an immutable copy of the mapping of the Node, or null
+	 */
+	private static <K, V> Map.Entry<K, V> exported(Node<K, V> node) {
+		return ( node == null ) ? null : new AbstractMap.SimpleImmutableEntry<K, V>(node);
+	}
+
+	/**
+	 * Returns the mapping with the greatest key less than or equal to the
+	 * 	given key, or null if there is no such key
+	 * @param key - the key to match
+	 * @return an immutable copy of the mapping, or null
+	 * @throw NullPointerException - if the specified key is null
+	 */
+	public Map.Entry<K, V> floorEntry(K key) {
+		return exported(near(key, false, true));
+	}
+
+	/**
+	 * Returns the mapping with the least key greater than or equal to the
+	 * 	given key, or null if there is no such key
+	 * @param key - the key to match
+	 * @return an immutable copy of the mapping, or null
+	 * @throw NullPointerException - if the specified key is null
+	 */
+	public Map.Entry<K, V> ceilingEntry(K key) {
+		return exported(near(key, true, true));
+	}
+
+	/**
+	 * Returns the mapping with the greatest key strictly less than the given
+	 * 	key, or null if there is no such key
+	 * @param key - the key to match
+	 * @return an immutable copy of the mapping, or null
+	 * @throw NullPointerException - if the specified key is null
+	 */
+	public Map.Entry<K, V> lowerEntry(K key) {
+		return exported(near(key, false, false));
+	}
+
+	/**
+	 * Returns the mapping with the least key strictly greater than the given
+	 * 	key, or null if there is no such key
+	 * @param key - the key to match
+	 * @return an immutable copy of the mapping, or null
+	 * @throw NullPointerException - if the specified key is null
+	 */
+	public Map.Entry<K, V> higherEntry(K key) {
+		return exported(near(key, true, false));
+	}
+
+	/**
+	 * Returns the mapping with the least key, or null if this map is empty
+	 * @return an immutable copy of the mapping, or null
+	 */
+	public Map.Entry<K, V> firstEntry() {
+		Node<K, V> current = root;
+		while ( current != null && current.left != null )
+			current = current.left;
+		return exported(current);
+	}
+
+	/**
+	 * Returns the mapping with the greatest key, or null if this map is empty
+	 * @return an immutable copy of the mapping, or null
+	 */
+	public Map.Entry<K, V> lastEntry() {
+		Node<K, V> current = root;
+		while ( current != null && current.right != null )
+			current = current.right;
+		return exported(current);
+	}
+
+	/**
+	 * Returns the number of keys below a bound
+	 * @param key - the bound
+	 * @param inclusive - whether a key equal to the bound is counted
+	 * @return the number of keys less than (or equal to) key
+	 */
+	private int rank(K key, boolean inclusive) {
+		Node<K, V> current = root;
+		int count = 0;
+		while ( current != null ) {
+			int comp = compare(key, current.key);
+			if ( comp < 0 || ( comp == 0 && !inclusive ) )
+				current = current.left;
+			else {
+				count += sizeOf(current.left) + 1;
+				if ( comp == 0 )
+					break;
+				current = current.right;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns a view of the mappings in this map in ascending key order.
+	 * 	Its iterator supports remove, and setValue on its entries writes
+	 * 	through to this map
+	 * @return a set view of the mappings contained in this map
+	 */
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		if ( entrySet == null )
+			entrySet = new Entries(null, false, null, false);
+		return entrySet;
+	}
+
+	/**
+	 * Returns a view of the mappings whose keys range from fromKey to toKey,
+	 * 	in ascending key order, that follows later changes to this map. Its
+	 * 	size is computed in O(log n) from the subtree sizes
+	 * @param fromKey - low endpoint of the keys, or null for no lower bound
+	 * @param fromInclusive - whether fromKey itself is in range
+	 * @param toKey - high endpoint of the keys, or null for no upper bound
+	 * @param toInclusive - whether toKey itself is in range
+	 * @return a set view of the mappings in the range
+	 * @throw IllegalArgumentException - if fromKey is greater than toKey
+	 */
+	public Set<Map.Entry<K, V>> entrySet(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+		if ( fromKey != null && toKey != null && compare(fromKey, toKey) > 0 )
+			throw new IllegalArgumentException("fromKey > toKey");
+		return new Entries(fromKey, fromInclusive, toKey, toInclusive);
+	}
+
+	/**
+	 * A view of the mappings in a range of keys
+	 */
+	class Entries extends AbstractSet<Map.Entry<K, V>> {
+		/**
+		 * bounds of the range, null when unbounded
+		 */
+		final K lo, hi;
+
+		/**
+		 * whether each bound itself is in range
+		 */
+		final boolean loInclusive, hiInclusive;
+
+		/**
+		 * Constructs a view of a range
+		 * @param lo - lower bound, or null
+		 * @param loInclusive - whether the lower bound is in range
+		 * @param hi - upper bound, or null
+		 * @param hiInclusive - whether the upper bound is in range
+		 */
+		Entries(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+			this.lo = lo;
+			this.loInclusive = loInclusive;
+			this.hi = hi;
+			this.hiInclusive = hiInclusive;
+		}
+
+		/**
+		 * @param key - a key
+		 * @return true if the key lies within the range
+		 */
+		boolean inRange(K key) {
+			if ( lo != null ) {
+				int comp = compare(key, lo);
+				if ( comp < 0 || ( comp == 0 && !loInclusive ) )
+					return false;
+			}
+			if ( hi != null ) {
+				int comp = compare(key, hi);
+				if ( comp > 0 || ( comp == 0 && !hiInclusive ) )
+					return false;
+			}
+			return true;
+		}
+
+		@Override
+		public int size() {
+			int low = ( lo == null ) ? 0 : rank(lo, !loInclusive);
+			int high = ( hi == null ) ? BSTMap.this.size() : rank(hi, hiInclusive);
+			return Math.max(0, high - low);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean contains(Object o) {
+			if ( !(o instanceof Map.Entry) )
+				return false;
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+			if ( entry.getKey() == null || !inRange((K) entry.getKey()) )
+				return false;
+			Node<K, V> node = find(entry.getKey());
+			return node != null && ( node.value == null ? entry.getValue() == null
+				: node.value.equals(entry.getValue()) );
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean remove(Object o) {
+			if ( !contains(o) )
+				return false;
+			BSTMap.this.remove(((Map.Entry<K, ?>) o).getKey());
+			return true;
+		}
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIter(this);
+		}
+	}
+
+	/**
+	 * An iterator over the mappings in a range of keys, in ascending key order.
+	 * 	It keeps only the path to the next Node and does its work lazily
+	 */
+	class EntryIter implements Iterator<Map.Entry<K, V>> {
+		/**
+		 * the range iterated over
+		 */
+		final Entries range;
+
+		/**
+		 * Nodes whose mapping and right subtree are still to be visited
+		 */
+		Node<K, V>[] stack;
+		int depth;
+
+		/**
+		 * the key of the last mapping returned by next(), or null
+		 */
+		K lastReturned;
+
+		/**
+		 * the modCount this iterator expects the map to have
+		 */
+		int expectedModCount;
+
+		/**
+		 * constructs an iterator at the start of a range
+		 * @param range - the range
+		 */
+		EntryIter(Entries range) {
+			this.range = range;
+			expectedModCount = modCount;
+			seek(range.lo, range.loInclusive);
+		}
+
+		/**
+		 * pushes the path to the keys after a bound
+		 * @param from - the bound, or null for the first key
+		 * @param inclusive - whether a key equal to the bound is included
+		 */
+		private void seek(K from, boolean inclusive) {
+			stack = newPath(heightOf(root));
+			depth = 0;
+			Node<K, V> current = root;
+			while ( current != null ) {
+				int comp = ( from == null ) ? -1 : compare(from, current.key);
+				if ( comp < 0 || ( comp == 0 && inclusive ) ) {
+					stack[depth ++] = current;
+					current = current.left;
+				}
+				else
+					current = current.right;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if ( depth == 0 )
+				return false;
+			K key = stack[depth - 1].key;
+			if ( range.hi == null )
+				return true;
+			int comp = compare(key, range.hi);
+			return comp < 0 || ( comp == 0 && range.hiInclusive );
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if ( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+			if ( !hasNext() ) throw new
+				NoSuchElementException("reached the end of this collection");
+			Node<K, V> node = stack[-- depth];
+			for ( Node<K, V> current = node.right; current != null; current = current.left )
+				stack[depth ++] = current;
+			lastReturned = node.key;
+			return node;
+		}
+
+		@Override
+		public void remove() {
+			if ( lastReturned == null )
+				throw new IllegalStateException("next() has not been called");
+			if ( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+
+			BSTMap.this.remove(lastReturned);
+			expectedModCount = modCount;
+			seek(lastReturned, false);
+			lastReturned = null;
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,266 @@
+package datastructure;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is a class that collects operation statistics for a BST while they
+ * 	are enabled with BST.enableMetrics(). A tree without metrics only checks
+ * 	a null field per operation and per comparison; a tree with metrics times
+ * 	each measured operation, counts its comparisons and the Nodes on its
+ * 	path as it runs, and counts rotations.
+ * 	The counters are LongAdders, so a snapshot may be taken from another
+ * 	thread while the tree is in use.
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public final class BSTMetrics extends Object {
+	/**
+	 * The measured operations
+	 */
+	public enum Operation {
+		ADD, REMOVE, CONTAINS, CEILING, FLOOR, HIGHER, LOWER
+	}
+
+	/**
+	 * The number of buckets of the depth histogram; deeper paths are counted
+	 * 	in the last bucket
+	 */
+	public static final int DEPTHS = 64;
+
+	/**
+	 * number of calls of each operation
+	 */
+	private final LongAdder[] counts = adders(Operation.values().length);
+
+	/**
+	 * total time spent in each operation, in nanoseconds
+	 */
+	private final LongAdder[] nanos = adders(Operation.values().length);
+
+	/**
+	 * number of measured operations by the number of Nodes on their path
+	 */
+	private final LongAdder[] depths = adders(DEPTHS);
+
+	/**
+	 * number of element comparisons made by the measured operations
+	 */
+	private final LongAdder comparisons = new LongAdder();
+
+	/**
+	 * number of single rotations made while rebalancing
+	 */
+	private final LongAdder rotations = new LongAdder();
+
+	/**
+	 * Constructs a BSTMetrics object with all counters at zero
+	 */
+	BSTMetrics() {
+	}
+
+	/**
+	 * @param length - number of counters
+	 * @return an array of new counters
+	 */
+	private static LongAdder[] adders(int length) {
+		LongAdder[] adders = new LongAdder[length];
+		for ( int i = 0; i < length; i ++ )
+			adders[i] = new LongAdder();
+		return adders;
+	}
+
+	/**
+	 * Records one call of an operation
+	 * @param operation - the operation
+	 * @param elapsed - time it took, in nanoseconds
+	 * @param depth - number of Nodes on the path it took
+	 * @param compared - number of element comparisons it made
+	 */
+	void record(Operation operation, long elapsed, int depth, int compared) {
+		counts[operation.ordinal()].increment();
+		nanos[operation.ordinal()].add(elapsed);
+		depths[Math.min(depth, DEPTHS - 1)].increment();
+		comparisons.add(compared);
+	}
+
+	/**
+	 * Records one rotation
+	 */
+	void rotation() {
+		rotations.increment();
+	}
+
+	/**
+	 * Sets all counters back to zero
+	 */
+	void reset() {
+		for ( LongAdder adder : counts )
+			adder.reset();
+		for ( LongAdder adder : nanos )
+			adder.reset();
+		for ( LongAdder adder : depths )
+			adder.reset();
+		comparisons.reset();
+		rotations.reset();
+	}
+
+	/**
+	 * Returns the current values of the counters together with the shape of the tree
+	 * @param size - number of elements in the tree
+	 * @param height - height of the tree
+	 * @return a snapshot of the counters
+	 */
+	Snapshot snapshot(int size, int height) {
+		return new Snapshot(this, size, height);
+	}
+
+	/**
+	 * This is an immutable copy of the counters of a BSTMetrics object,
+	 * 	taken by BST.metrics()
+	 */
+	public static final class Snapshot extends Object {
+		/**
+		 * copies of the counters
+		 */
+		private final long[] counts, nanos, depths;
+
+		/**
+		 * copies of the comparison and rotation counters
+		 */
+		private final long comparisons, rotations;
+
+		/**
+		 * size and height of the tree when the snapshot was taken
+		 */
+		private final int size, height;
+
+		/**
+		 * Copies the counters of a BSTMetrics object
+		 * @param metrics - counters to copy
+		 * @param size - number of elements in the tree
+		 * @param height - height of the tree
+		 */
+		private Snapshot(BSTMetrics metrics, int size, int height) {
+			counts = sums(metrics.counts);
+			nanos = sums(metrics.nanos);
+			depths = sums(metrics.depths);
+			comparisons = metrics.comparisons.sum();
+			rotations = metrics.rotations.sum();
+			this.size = size;
+			this.height = height;
+		}
+
+		/**
+		 * @param adders - counters
+		 * @return the values of the counters
+		 */
+		private static long[] sums(LongAdder[] adders) {
+			long[] sums = new long[adders.length];
+			for ( int i = 0; i < adders.length; i ++ )
+				sums[i] = adders[i].sum();
+			return sums;
+		}
+
+		/**
+		 * @param operation - a measured operation
+		 * @return the number of calls of the operation
+		 */
+		public long count(Operation operation) {
+			return counts[operation.ordinal()];
+		}
+
+		/**
+		 * @param operation - a measured operation
+		 * @return the total time spent in the operation, in nanoseconds
+		 */
+		public long totalNanos(Operation operation) {
+			return nanos[operation.ordinal()];
+		}
+
+		/**
+		 * @param operation - a measured operation
+		 * @return the mean time of a call of the operation, in nanoseconds,
+		 * 	or 0 if it was never called
+		 */
+		public double meanNanos(Operation operation) {
+			long count = count(operation);
+			return ( count == 0 ) ? 0 : (double) totalNanos(operation) / count;
+		}
+
+		/**
+		 * @return the number of element comparisons made by the measured operations
+		 */
+		public long comparisons() {
+			return comparisons;
+		}
+
+		/**
+		 * @return the number of single rotations made while rebalancing
+		 */
+		public long rotations() {
+			return rotations;
+		}
+
+		/**
+		 * Returns the path depth histogram: entry d holds the number of
+		 * 	measured operations whose path held d Nodes, the last entry also
+		 * 	counting deeper paths
+		 * @return a copy of the histogram
+		 */
+		public long[] depthHistogram() {
+			return depths.clone();
+		}
+
+		/**
+		 * @return the number of elements in the tree
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * @return the height of the tree
+		 */
+		public int height() {
+			return height;
+		}
+
+		/**
+		 * Returns the least height a tree of this size can have, floor(log2(size)) + 1
+		 * @return the ideal height, or 0 for an empty tree
+		 */
+		public int idealHeight() {
+			return Integer.SIZE - Integer.numberOfLeadingZeros(size);
+		}
+
+		/**
+		 * Returns the height of the tree relative to the ideal height. An AVL
+		 * 	tree stays below 1.45; higher values mean the tree has degenerated
+		 * @return height() / idealHeight(), or 1 for an empty tree
+		 */
+		public double heightRatio() {
+			return ( size == 0 ) ? 1 : (double) height / idealHeight();
+		}
+
+		/**
+		 * @return a string representation of this snapshot
+		 */
+		@Override
+		public String toString() {
+			StringBuilder string = new StringBuilder();
+			string.append("size=").append(size).append(", height=").append(height)
+				.append(", idealHeight=").append(idealHeight());
+			for ( Operation operation : Operation.values() ) {
+				if ( count(operation) > 0 )
+					string.append(", ").append(operation).append("=").append(count(operation))
+						.append(String.format(" (%.1f ns)", meanNanos(operation)));
+			}
+			string.append(", comparisons=").append(comparisons)
+				.append(", rotations=").append(rotations);
+			return string.toString();
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,679 @@
+package datastructure;
+
+import java.util.AbstractCollection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * This is a generic multiset class, kept height balanced as an AVL tree. Equal
+ * 	elements share one Node that counts their occurrences, so the tree holds
+ * 	one Node per distinct element while size, get(index), rank and iteration
+ * 	count every occurrence. Each Node also keeps the total number of
+ * 	occurrences in its subtree
+ * - it has a default constructor BSTMultiset<E>();
+ * - it has a constructor BSTMultiset<E>(Comparator<E> comparator);
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public class BSTMultiset<E> extends AbstractCollection<E> {
+	/**
+	 * This is a nested class that provides the nodes of the multiset
+	 *
+	 * @author Evelyn Wu
+	 *
+	 */
+	private static final class Node<E> extends Object {
+		/**
+		 * Left and right child of the Node
+		 */
+		Node<E> left, right;
+
+		/**
+		 * height of the Node
+		 */
+		int height = 1;
+
+		/**
+		 * number of occurrences of the data
+		 */
+		int count;
+
+		/**
+		 * number of occurrences in the subtree rooted at this Node
+		 */
+		int size;
+
+		/**
+		 * data stored in the Node
+		 */
+		E data;
+
+		/**
+		 * Constructs a new Node that stores some occurrences of the data
+		 * @param data - data to store
+		 * @param count - number of occurrences
+		 */
+		Node(E data, int count) {
+			this.data = data;
+			this.count = count;
+			this.size = count;
+		}
+	}
+
+	/**
+	 * The first Node of the multiset
+	 */
+	private Node<E> root;
+
+	/**
+	 * The order of the elements, or null for their natural ordering
+	 */
+	private final Comparator<? super E> comparator;
+
+	/**
+	 * The number of modifications made to this multiset, used by the
+	 * 	iterators to fail fast on concurrent modification
+	 */
+	private int modCount;
+
+	/**
+	 * The number of distinct elements in the multiset
+	 */
+	private int distinct;
+
+	/**
+	 * Default constructor of a BSTMultiset object, ordering its elements by
+	 * 	their natural ordering
+	 */
+	public BSTMultiset() {
+		this(null);
+	}
+
+	/**
+	 * Constructs an empty BSTMultiset object ordered by a comparator
+	 * @param comparator - the order of the elements, or null for their natural ordering
+	 */
+	public BSTMultiset(Comparator<? super E> comparator) {
+		this.comparator = comparator;
+	}
+
+	/**
+	 * @param length - number of Nodes the path must hold
+	 * @return a new path array
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> Node<E>[] newPath(int length) {
+		return (Node<E>[]) new Node<?>[Math.max(length, 8)];
+	}
+
+	/**
+	 * Compares two elements in the order of this multiset
+	 * @param a - element to compare
+	 * @param b - element to compare with
+	 * @return a negative number, zero or a positive number as a is less than,
+	 * 	equal to or greater than b
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(E a, E b) {
+		if ( comparator != null )
+			return comparator.compare(a, b);
+		return ((Comparable<? super E>) a).compareTo(b);
+	}
+
+	/**
+	 * @param node - a Node, or null
+	 * @return height of the Node, or 0 for null
+	 */
+	private static int heightOf(Node<?> node) {
+		return ( node == null ) ? 0 : node.height;
+	}
+
+	/**
+	 * @param node - a Node, or null
+	 * @return number of occurrences in its subtree, or 0 for null
+	 */
+	private static int sizeOf(Node<?> node) {
+		return ( node == null ) ? 0 : node.size;
+	}
+
+	/**
+	 * updates the height and the subtree size of a given Node
+	 * @param node - Node to be updated
+	 */
+	private static void update(Node<?> node) {
+		node.height = Math.max(heightOf(node.left), heightOf(node.right)) + 1;
+		node.size = sizeOf(node.left) + sizeOf(node.right) + node.count;
+	}
+
+	/**
+	 * Rotates a subtree to the right around its root
+	 * @param node - root of the subtree, must have a left child
+	 * @return the new root of the subtree
+	 */
+	private static <E> Node<E> rotateRight(Node<E> node) {
+		Node<E> pivot = node.left;
+		node.left = pivot.right;
+		pivot.right = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	/**
+	 * Rotates a subtree to the left around its root
+	 * @param node - root of the subtree, must have a right child
+	 * @return the new root of the subtree
+	 */
+	private static <E> Node<E> rotateLeft(Node<E> node) {
+		Node<E> pivot = node.right;
+		node.right = pivot.left;
+		pivot.left = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	/**
+	 * Updates a Node whose children are already balanced and restores the
+	 * 	AVL property with a single or double rotation
+	 * @param node - root of the subtree to rebalance
+	 * @return the new root of the subtree
+	 */
+	private static <E> Node<E> balance(Node<E> node) {
+		update(node);
+		int diff = heightOf(node.left) - heightOf(node.right);
+
+		if ( diff > 1 ) {
+			if ( heightOf(node.left.left) < heightOf(node.left.right) )
+				node.left = rotateLeft(node.left);
+			return rotateRight(node);
+		}
+		if ( diff < -1 ) {
+			if ( heightOf(node.right.right) < heightOf(node.right.left) )
+				node.right = rotateRight(node.right);
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Rebalances the Nodes of a path bottom-up, relinking each rebalanced
+	 * 	subtree into its parent
+	 * @param path - Nodes from the root downwards
+	 * @param depth - number of Nodes in the path
+	 */
+	private void rebalancePath(Node<E>[] path, int depth) {
+		for ( int i = depth - 1; i >= 0; i -- ) {
+			Node<E> node = path[i];
+			Node<E> balanced = balance(node);
+			if ( i == 0 )
+				root = balanced;
+			else if ( path[i - 1].left == node )
+				path[i - 1].left = balanced;
+			else
+				path[i - 1].right = balanced;
+		}
+	}
+
+	/**
+	 * Adds to the subtree sizes of the Nodes on a path
+	 * @param path - Nodes from the root downwards
+	 * @param depth - number of Nodes in the path
+	 * @param delta - occurrences added (or removed, if negative)
+	 */
+	private static <E> void resizePath(Node<E>[] path, int depth, int delta) {
+		for ( int i = 0; i < depth; i ++ )
+			path[i].size += delta;
+	}
+
+	/**
+	 * Descends from the root towards an element, recording the path in a
+	 * 	buffer owned by the caller
+	 * @param data - the element to look for
+	 * @param path - receives the Nodes from the root down to the parent of the
+	 * 	Node holding the element, followed by that Node, or null if there is
+	 * 	none; the path then ends at the Node to attach a new leaf to
+	 * @return the number of Nodes above the one holding the element
+	 * @throw NullPointerException - if the element is null
+	 * @throw ClassCastException - if the element cannot be compared with the elements in this multiset
+	 */
+	private int descend(E data, Node<E>[] path) {
+		if ( data == null )
+			throw new NullPointerException("Null data");
+
+		int depth = 0;
+		Node<E> current = root;
+		while ( current != null ) {
+			int comp = compare(data, current.data);
+			if ( comp == 0 )
+				break;
+			path[depth ++] = current;
+			current = ( comp < 0 ) ? current.left : current.right;
+		}
+		if ( root == null )
+			compare(data, data); //type check, as a single element is never compared
+		path[depth] = current;
+		return depth;
+	}
+
+	/**
+	 * Returns the Node holding an element
+	 * @param o - the element
+	 * @return the Node, or null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	private Node<E> find(Object o) {
+		if ( o == null )
+			throw new NullPointerException("Null data");
+
+		Node<E> current = root;
+		while ( current != null ) {
+			int comp = compare((E) o, current.data);
+			if ( comp == 0 )
+				return current;
+			current = ( comp < 0 ) ? current.left : current.right;
+		}
+		return null;
+	}
+
+	/**
+	 * Adds one occurrence of an element to the multiset
+	 * @param data - the element to add
+	 * @return true, as the multiset always changes
+	 * @throw NullPointerException - if the element is null
+	 * @throw IllegalArgumentException - if the size would exceed Integer.MAX_VALUE
+	 */
+	@Override
+	public boolean add(E data) {
+		add(data, 1);
+		return true;
+	}
+
+	/**
+	 * Adds a number of occurrences of an element to the multiset
+	 * @param data - the element to add
+	 * @param occurrences - the number of occurrences to add, may be zero
+	 * @return the number of occurrences of the element before the call
+	 * @throw NullPointerException - if the element is null
+	 * @throw IllegalArgumentException - if occurrences is negative, or the
+	 * 	size would exceed Integer.MAX_VALUE
+	 */
+	public int add(E data, int occurrences) {
+		if ( occurrences < 0 )
+			throw new IllegalArgumentException("Negative occurrences: " + occurrences);
+		if ( occurrences > Integer.MAX_VALUE - size() )
+			throw new IllegalArgumentException("Too many occurrences");
+
+		Node<E>[] path = newPath(heightOf(root) + 1);
+		int depth = descend(data, path);
+		Node<E> node = path[depth];
+		if ( node != null ) {
+			int old = node.count;
+			node.count += occurrences;
+			node.size += occurrences;
+			resizePath(path, depth, occurrences);
+			modCount ++;
+			return old;
+		}
+		if ( occurrences == 0 )
+			return 0;
+
+		node = new Node<E>(data, occurrences);
+		if ( depth == 0 )
+			root = node;
+		else if ( compare(data, path[depth - 1].data) < 0 )
+			path[depth - 1].left = node;
+		else
+			path[depth - 1].right = node;
+		distinct ++;
+		modCount ++;
+		rebalancePath(path, depth);
+		return 0;
+	}
+
+	/**
+	 * Removes one occurrence of an element from the multiset, if present
+	 * @param o - the element to remove
+	 * @return true if an occurrence was removed
+	 * @throw NullPointerException - if the element is null
+	 * @throw ClassCastException - if the element cannot be compared with the elements in this multiset
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object o) {
+		return remove((E) o, 1) > 0;
+	}
+
+	/**
+	 * Removes a number of occurrences of an element from the multiset. If
+	 * 	fewer are present, all of them are removed
+	 * @param data - the element to remove
+	 * @param occurrences - the number of occurrences to remove, may be zero
+	 * @return the number of occurrences of the element before the call
+	 * @throw NullPointerException - if the element is null
+	 * @throw IllegalArgumentException - if occurrences is negative
+	 */
+	public int remove(E data, int occurrences) {
+		if ( occurrences < 0 )
+			throw new IllegalArgumentException("Negative occurrences: " + occurrences);
+
+		Node<E>[] path = newPath(heightOf(root) + 1);
+		int depth = descend(data, path);
+		Node<E> node = path[depth];
+		if ( node == null || occurrences == 0 )
+			return ( node == null ) ? 0 : node.count;
+
+		int old = node.count;
+		modCount ++;
+		if ( occurrences < old ) {
+			node.count -= occurrences;
+			node.size -= occurrences;
+			resizePath(path, depth, -occurrences);
+			return old;
+		}
+
+		//unlink the Node; with two children its predecessor takes its place
+		Node<E> victim = node;
+		if ( node.left != null && node.right != null ) {
+			path[depth ++] = node;
+			victim = node.left;
+			while ( victim.right != null ) {
+				path[depth ++] = victim;
+				victim = victim.right;
+			}
+			node.data = victim.data;
+			node.count = victim.count;
+		}
+		Node<E> replacement = ( victim.left != null ) ? victim.left : victim.right;
+		if ( depth == 0 )
+			root = replacement;
+		else if ( path[depth - 1].left == victim )
+			path[depth - 1].left = replacement;
+		else
+			path[depth - 1].right = replacement;
+		distinct --;
+		rebalancePath(path, depth);
+		return old;
+	}
+
+	/**
+	 * Returns the number of occurrences of an element in the multiset
+	 * @param o - the element
+	 * @return the number of occurrences, or 0 if the element is absent
+	 * @throw NullPointerException - if the element is null
+	 * @throw ClassCastException - if the element cannot be compared with the elements in this multiset
+	 */
+	public int count(Object o) {
+		Node<E> node = find(o);
+		return ( node == null ) ? 0 : node.count;
+	}
+
+	/**
+	 * Returns true if the multiset holds at least one occurrence of an element
+	 * @param o - the element
+	 * @return true if the element is present
+	 * @throw NullPointerException - if the element is null
+	 * @throw ClassCastException - if the element cannot be compared with the elements in this multiset
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return find(o) != null;
+	}
+
+	/**
+	 * Returns the number of occurrences of all elements in the multiset
+	 * @return the size of the multiset, counting multiplicities
+	 */
+	@Override
+	public int size() {
+		return sizeOf(root);
+	}
+
+	/**
+	 * Returns the number of distinct elements in the multiset, that is the
+	 * 	number of Nodes in the tree
+	 * @return the number of distinct elements
+	 */
+	public int distinctSize() {
+		return distinct;
+	}
+
+	/**
+	 * Returns true if the multiset holds no elements
+	 * @return true if the multiset is empty
+	 */
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+	 * Removes all of the elements of the multiset
+	 */
+	@Override
+	public void clear() {
+		root = null;
+		distinct = 0;
+		modCount ++;
+	}
+
+	/**
+	 * Returns the element at a position of the multiset in ascending order,
+	 * 	where an element with n occurrences takes n consecutive positions
+	 * @param index - the position, from 0 to size() - 1
+	 * @return the element at that position
+	 * @throw IndexOutOfBoundsException - if the index is out of range
+	 */
+	public E get(int index) {
+		if ( index < 0 || index >= size() )
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+
+		Node<E> current = root;
+		while ( true ) {
+			int leftSize = sizeOf(current.left);
+			if ( index < leftSize )
+				current = current.left;
+			else if ( index < leftSize + current.count )
+				return current.data;
+			else {
+				index -= leftSize + current.count;
+				current = current.right;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of occurrences of the elements less than a given element,
+	 * 	which is the position of its first occurrence if present
+	 * @param data - the element
+	 * @return the number of occurrences strictly less than data
+	 * @throw NullPointerException - if the element is null
+	 */
+	public int rank(E data) {
+		if ( data == null )
+			throw new NullPointerException("Null data");
+
+		Node<E> current = root;
+		int rank = 0;
+		while ( current != null ) {
+			int comp = compare(data, current.data);
+			if ( comp <= 0 ) {
+				if ( comp == 0 )
+					return rank + sizeOf(current.left);
+				current = current.left;
+			}
+			else {
+				rank += sizeOf(current.left) + current.count;
+				current = current.right;
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the least element of the multiset
+	 * @return the least element
+	 * @throw NoSuchElementException - if the multiset is empty
+	 */
+	public E first() {
+		if ( root == null )
+			throw new NoSuchElementException("Empty multiset");
+		Node<E> current = root;
+		while ( current.left != null )
+			current = current.left;
+		return current.data;
+	}
+
+	/**
+	 * Returns the greatest element of the multiset
+	 * @return the greatest element
+	 * @throw NoSuchElementException - if the multiset is empty
+	 */
+	public E last() {
+		if ( root == null )
+			throw new NoSuchElementException("Empty multiset");
+		Node<E> current = root;
+		while ( current.right != null )
+			current = current.right;
+		return current.data;
+	}
+
+	/**
+	 * Passes each distinct element with its number of occurrences to an
+	 * 	action, in ascending order
+	 * @param action - the action to perform
+	 * @throw NullPointerException - if the action is null
+	 */
+	public void forEachEntry(ObjIntConsumer<? super E> action) {
+		if ( action == null )
+			throw new NullPointerException("Null action");
+
+		Node<E>[] stack = newPath(heightOf(root));
+		int top = 0;
+		Node<E> current = root;
+		while ( current != null || top > 0 ) {
+			while ( current != null ) {
+				stack[top ++] = current;
+				current = current.left;
+			}
+			current = stack[-- top];
+			action.accept(current.data, current.count);
+			current = current.right;
+		}
+	}
+
+	/**
+	 * Returns the comparator used to order the elements in this multiset
+	 * @return the comparator, or null if this multiset uses the natural ordering of its elements
+	 */
+	public Comparator<? super E> comparator() {
+		return comparator;
+	}
+
+	/**
+	 * An iterator over the multiset in ascending order, returning each element
+	 * 	as many times as it occurs
+	 */
+	class Iter implements Iterator<E> {
+		/**
+		 * Nodes whose data and right subtree are still to be visited
+		 */
+		Node<E>[] stack;
+		int depth;
+
+		/**
+		 * the Node whose occurrences are being returned, and how many remain
+		 */
+		Node<E> current;
+		int remaining;
+
+		/**
+		 * the last element returned by next(), or null
+		 */
+		E lastReturned;
+
+		/**
+		 * the modCount this iterator expects the multiset to have
+		 */
+		int expectedModCount;
+
+		/**
+		 * constructs an iterator at the first element
+		 */
+		Iter() {
+			expectedModCount = modCount;
+			seek(null);
+		}
+
+		/**
+		 * pushes the path to the elements after a bound
+		 * @param from - the bound, or null for the first element
+		 */
+		private void seek(E from) {
+			stack = newPath(heightOf(root));
+			depth = 0;
+			Node<E> node = root;
+			while ( node != null ) {
+				if ( from == null || compare(from, node.data) < 0 ) {
+					stack[depth ++] = node;
+					node = node.left;
+				}
+				else
+					node = node.right;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0 || depth > 0;
+		}
+
+		@Override
+		public E next() {
+			if ( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+			if ( !hasNext() ) throw new
+				NoSuchElementException("reached the end of this collection");
+			if ( remaining == 0 ) {
+				current = stack[-- depth];
+				for ( Node<E> node = current.right; node != null; node = node.left )
+					stack[depth ++] = node;
+				remaining = current.count;
+			}
+			remaining --;
+			lastReturned = current.data;
+			return lastReturned;
+		}
+
+		@Override
+		public void remove() {
+			if ( lastReturned == null )
+				throw new IllegalStateException("next() has not been called");
+			if ( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+
+			//the tree only changes shape when the last occurrence goes
+			boolean unlinked = BSTMultiset.this.remove(lastReturned, 1) == 1;
+			expectedModCount = modCount;
+			if ( unlinked )
+				seek(lastReturned);
+			lastReturned = null;
+		}
+	}
+
+	/**
+	 * Returns an iterator over the multiset in ascending order, returning
+	 * 	each element as many times as it occurs
+	 * @return an iterator over the multiset
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iter();
+	}
+
+}
\ No newline at end of file
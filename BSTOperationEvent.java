@@ -0,0 +1,39 @@
+package datastructure;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This is a JDK Flight Recorder event for one measured operation of a BST
+ * 	with metrics enabled. Its duration is the time the operation took; it is
+ * 	disabled unless a recording enables datastructure.BSTOperation.
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+@Name("datastructure.BSTOperation")
+@Label("BST Operation")
+@Category("Data Structures")
+@Description("An add, remove, contains or navigation call on a BST with metrics enabled")
+class BSTOperationEvent extends Event {
+	@Label("Operation")
+	String operation;
+
+	@Label("Search Depth")
+	@Description("Number of Nodes on the path the operation took")
+	int depth;
+
+	@Label("Size")
+	int size;
+
+	@Label("Height")
+	int height;
+
+	@Label("Ideal Height")
+	@Description("floor(log2(size)) + 1")
+	int idealHeight;
+}
\ No newline at end of file
@@ -0,0 +1,259 @@
+package datastructure;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * This is a utility class that saves a BST to a compact binary file and
+ * 	loads it back. The file holds a header, the elements in ascending order,
+ * 	each prefixed with its encoded length, and a CRC32 of everything before
+ * 	the checksum:
+ * - int magic, int version, int number of elements
+ * - for each element: int length, then the bytes written by the KeyCodec
+ * - int CRC32
+ * All ints are big-endian. Loading maps the file into memory and builds a
+ * 	balanced tree in one pass over the sorted elements, without comparisons
+ * 	beyond the check that they are ascending.
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public final class BSTSnapshot extends Object {
+	/**
+	 * The first four bytes of a snapshot file, "BSTS"
+	 */
+	private static final int MAGIC = 0x42535453;
+
+	/**
+	 * The version of the format written by this class
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The number of bytes before the first element
+	 */
+	private static final int HEADER = 3 * Integer.BYTES;
+
+	/**
+	 * The size of the write buffer
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * This class is not instantiated
+	 */
+	private BSTSnapshot() {
+	}
+
+	/**
+	 * Writes the elements of a tree to a file, replacing it. The snapshot is
+	 * 	written and forced to a sibling file named file.tmp, which is then
+	 * 	renamed over the file, so that a crash or an error partway through
+	 * 	leaves the previous contents of the file as they were
+	 * @param tree - tree to save
+	 * @param codec - encoding of the elements
+	 * @param file - file to write
+	 * @throw IOException - if the file cannot be written
+	 * @throw NullPointerException - if any argument is null
+	 */
+	public static <E> void write(BST<E> tree, KeyCodec<? super E> codec, Path file)
+			throws IOException {
+		if ( tree == null || codec == null || file == null )
+			throw new NullPointerException("Null argument");
+
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		boolean written = false;
+		try {
+			try ( FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING) ) {
+				write(tree, codec, channel);
+				channel.force(true);
+			}
+			Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+			written = true;
+		} finally {
+			if ( !written )
+				Files.deleteIfExists(temporary);
+		}
+		Path directory = file.toAbsolutePath().getParent();
+		if ( directory != null )
+			syncDirectory(directory);
+	}
+
+	/**
+	 * Forces the entries of a directory to disk, so that a file renamed into
+	 * 	it survives a crash, where the platform supports it
+	 * @param directory - the directory
+	 */
+	static void syncDirectory(Path directory) {
+		try ( FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ) ) {
+			channel.force(true);
+		} catch ( IOException e ) {
+			//not every platform can open a directory
+		}
+	}
+
+	/**
+	 * Writes the elements of a tree to a channel at its current position
+	 * @param tree - tree to save
+	 * @param codec - encoding of the elements
+	 * @param channel - channel to write
+	 * @throw IOException - if the channel cannot be written
+	 */
+	static <E> void write(BST<E> tree, KeyCodec<? super E> codec, FileChannel channel)
+			throws IOException {
+		CRC32 crc = new CRC32();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(tree.size());
+
+		for ( E element : tree ) {
+			int length = codec.encodedLength(element);
+			if ( buffer.remaining() < Integer.BYTES + length ) {
+				flush(buffer, crc, channel);
+				if ( buffer.capacity() < Integer.BYTES + length )
+					buffer = ByteBuffer.allocateDirect(Integer.BYTES + length);
+			}
+			buffer.putInt(length);
+			int start = buffer.position();
+			codec.encode(element, buffer);
+			if ( buffer.position() - start != length )
+				throw new IllegalStateException("Codec wrote " + ( buffer.position() - start )
+					+ " bytes instead of " + length);
+		}
+
+		flush(buffer, crc, channel);
+		buffer.putInt((int) crc.getValue());
+		buffer.flip();
+		while ( buffer.hasRemaining() )
+			channel.write(buffer);
+	}
+
+	/**
+	 * Checksums and writes the contents of a buffer, then empties it
+	 * @param buffer - buffer in write mode
+	 * @param crc - running checksum
+	 * @param channel - channel to write
+	 * @throw IOException - if the channel cannot be written
+	 */
+	private static void flush(ByteBuffer buffer, CRC32 crc, FileChannel channel) throws IOException {
+		buffer.flip();
+		crc.update(buffer.duplicate());
+		while ( buffer.hasRemaining() )
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Loads a tree from a file written by write()
+	 * @param file - file to read
+	 * @param codec - encoding of the elements, the one the file was written with
+	 * @return a balanced tree with the elements in the file
+	 * @throw IOException - if the file cannot be read, or is not a valid snapshot
+	 * @throw NullPointerException - if any argument is null
+	 */
+	public static <E extends Comparable<E>> BST<E> read(Path file, KeyCodec<? extends E> codec)
+			throws IOException {
+		return read(file, codec, null);
+	}
+
+	/**
+	 * Loads a tree ordered by a comparator from a file written by write()
+	 * @param file - file to read
+	 * @param codec - encoding of the elements, the one the file was written with
+	 * @param comparator - the order the elements were written in, or null for
+	 * 	their natural ordering
+	 * @return a balanced tree with the elements in the file
+	 * @throw IOException - if the file cannot be read, or is not a valid snapshot
+	 * @throw NullPointerException - if the file or the codec is null
+	 */
+	public static <E> BST<E> read(Path file, KeyCodec<? extends E> codec, Comparator<? super E> comparator)
+			throws IOException {
+		if ( file == null || codec == null )
+			throw new NullPointerException("Null argument");
+
+		try ( FileChannel channel = FileChannel.open(file, StandardOpenOption.READ) ) {
+			if ( channel.size() > Integer.MAX_VALUE )
+				throw new IOException("Snapshot too large to map: " + channel.size() + " bytes");
+			MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return read(map, codec, comparator);
+		}
+	}
+
+	/**
+	 * Loads a tree from a buffer holding a whole snapshot
+	 * @param in - buffer positioned at the first byte of the snapshot, limited
+	 * 	to its last byte
+	 * @param codec - encoding of the elements
+	 * @param comparator - the order of the elements, or null for their natural ordering
+	 * @return a balanced tree with the elements in the snapshot
+	 * @throw IOException - if the buffer does not hold a valid snapshot
+	 */
+	@SuppressWarnings("unchecked")
+	static <E> BST<E> read(ByteBuffer in, KeyCodec<? extends E> codec, Comparator<? super E> comparator)
+			throws IOException {
+		int start = in.position();
+		int end = in.limit();
+		if ( end - start < HEADER + Integer.BYTES )
+			throw new IOException("Truncated snapshot");
+
+		ByteBuffer body = in.duplicate();
+		body.limit(end - Integer.BYTES);
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		if ( (int) crc.getValue() != in.getInt(end - Integer.BYTES) )
+			throw new IOException("Snapshot checksum mismatch");
+
+		if ( in.getInt() != MAGIC )
+			throw new IOException("Not a snapshot");
+		int version = in.getInt();
+		if ( version != VERSION )
+			throw new IOException("Unsupported snapshot version " + version);
+		int count = in.getInt();
+		if ( count < 0 || count > ( end - start - HEADER ) / Integer.BYTES )
+			throw new IOException("Corrupt snapshot: " + count + " elements");
+
+		in.limit(end - Integer.BYTES);
+		Object[] elements = new Object[count];
+		try {
+			for ( int i = 0; i < count; i ++ ) {
+				int length = in.getInt();
+				if ( length < 0 || length > in.remaining() )
+					throw new IOException("Corrupt snapshot: element length " + length);
+				int next = in.position() + length;
+				elements[i] = codec.decode(in, length);
+				if ( in.position() != next )
+					throw new IOException("Codec read " + ( in.position() + length - next )
+						+ " bytes instead of " + length);
+			}
+		}
+		catch ( BufferUnderflowException e ) {
+			throw new IOException("Truncated snapshot", e);
+		}
+		finally {
+			in.limit(end);
+		}
+		if ( in.remaining() != Integer.BYTES )
+			throw new IOException("Corrupt snapshot: trailing bytes");
+		in.position(end);
+
+		try {
+			return BST.fromSorted((List<E>) (List<?>) Arrays.asList(elements), comparator);
+		}
+		catch ( IllegalArgumentException | NullPointerException | ClassCastException e ) {
+			throw new IOException("Corrupt snapshot: " + e.getMessage(), e);
+		}
+	}
+
+}
\ No newline at end of file
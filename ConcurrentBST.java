@@ -0,0 +1,1092 @@
+package datastructure;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This is a thread-safe generic BST class. Its key range is cut into partitions,
+ * 	each a separate AVL tree of immutable Nodes with its own root. An update
+ * 	copies the path from the root of its partition to the changed Node and
+ * 	installs the new partition root with compare-and-set, so writers only
+ * 	contend, and retry, when they hit the same partition at the same time;
+ * 	writers to different partitions proceed in parallel. Reads never lock or
+ * 	retry: they find the partition by binary search in an immutable directory
+ * 	of partition bounds and search its current version.
+ * A partition that grows past SPLIT_SIZE elements is split in two, and one that
+ * 	shrinks below MERGE_SIZE is merged with a neighbour. Restructuring takes a
+ * 	lock, freezes the partitions involved so that their last version is final,
+ * 	and publishes a new directory; writers that meet a frozen partition wait
+ * 	for the new directory, while readers keep reading the frozen version.
+ * Every single-element operation is atomic. Operations that span partitions
+ * 	(first, last, pollFirst, pollLast, size, iteration, getRange and navigation
+ * 	past the end of a partition) read one partition at a time, so they are
+ * 	weakly consistent, and iterators never throw ConcurrentModificationException.
+ * - it has a default constructor ConcurrentBST<E>();
+ * - it has a constructor ConcurrentBST<E>(Comparator<E> comparator);
+ * - it has a constructor ConcurrentBST<E>(E[] Collection);
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public class ConcurrentBST<E> extends Object implements Iterable<E> {
+	/**
+	 * This is a nested class that provides immutable nodes for the ConcurrentBST
+	 */
+	private static final class Node <E> {
+		/**
+		 * Left and right child of the Node
+		 */
+		final Node<E> left, right;
+
+		/**
+		 * height of the Node
+		 */
+		final int height;
+
+		/**
+		 * number of Nodes in the subtree rooted at this Node
+		 */
+		final int size;
+
+		/**
+		 * data stored in the Node; null only in the marker of a frozen partition
+		 */
+		final E data;
+
+		/**
+		 * Constructs a new Node that stores the data above two subtrees
+		 * @param data - data to store
+		 * @param left - left subtree, may be null
+		 * @param right - right subtree, may be null
+		 */
+		Node(E data, Node<E> left, Node<E> right) {
+			this.data = data;
+			this.left = left;
+			this.right = right;
+			this.height = Math.max(heightOf(left), heightOf(right)) + 1;
+			this.size = sizeOf(left) + sizeOf(right) + 1;
+		}
+	}
+
+	/**
+	 * This is a nested class that holds the current root of one partition
+	 */
+	private static final class Partition <E> {
+		/**
+		 * The current root of the partition, or a frozen marker once the
+		 * 	partition is being replaced
+		 */
+		final AtomicReference<Node<E>> root;
+
+		/**
+		 * Constructs a partition
+		 * @param root - the initial root, may be null
+		 */
+		Partition(Node<E> root) {
+			this.root = new AtomicReference<Node<E>>(root);
+		}
+	}
+
+	/**
+	 * This is a nested class that maps the key range onto partitions. It is
+	 * 	never modified; restructuring publishes a new one
+	 */
+	private static final class Directory <E> {
+		/**
+		 * lower[i] is the least key partition i may hold; lower[0] is unused,
+		 * 	as partition 0 is unbounded below
+		 */
+		final Object[] lower;
+
+		/**
+		 * the partitions in ascending key order
+		 */
+		final Partition<E>[] parts;
+
+		/**
+		 * Constructs a directory
+		 * @param lower - lower bounds of the partitions
+		 * @param parts - the partitions
+		 */
+		Directory(Object[] lower, Partition<E>[] parts) {
+			this.lower = lower;
+			this.parts = parts;
+		}
+	}
+
+	/**
+	 * Partitions are split once they hold more elements than this
+	 */
+	static final int SPLIT_SIZE = 1 << 12;
+
+	/**
+	 * Partitions are merged with a neighbour once they hold fewer elements
+	 * 	than this, and the two together fewer than SPLIT_SIZE / 2
+	 */
+	static final int MERGE_SIZE = SPLIT_SIZE / 8;
+
+	/**
+	 * The current directory of partitions
+	 */
+	private final AtomicReference<Directory<E>> directory;
+
+	/**
+	 * Held while partitions are split, merged or cleared
+	 */
+	private final ReentrantLock restructureLock = new ReentrantLock();
+
+	/**
+	 * The order of the elements, or null for their natural ordering
+	 */
+	private final Comparator<? super E> comparator;
+
+	/**
+	 * Default constructor of a ConcurrentBST object, ordering its elements by
+	 * 	their natural ordering
+	 */
+	public ConcurrentBST() {
+		this((Comparator<? super E>) null);
+	}
+
+	/**
+	 * Constructs an empty ConcurrentBST object ordered by a comparator
+	 * @param comparator - the order of the elements, or null for their natural ordering
+	 */
+	public ConcurrentBST(Comparator<? super E> comparator) {
+		this.comparator = comparator;
+		this.directory = new AtomicReference<Directory<E>>(emptyDirectory());
+	}
+
+	/**
+	 * Consructs a new ConcurrentBST object stores the elements in a collection.
+	 * 	The elements are sorted once and cut into balanced partitions in
+	 * 	linear time, rather than added one at a time
+	 * @param collection - collection with elements to store, null elements are skipped
+	 * @throw NullPointerException - if the specified collection is null
+	 * @throw ClassCastException - if the elements cannot be compared with one another
+	 */
+	public ConcurrentBST(E[] collection) {
+		this.comparator = null;
+
+		Object[] sorted = new Object[collection.length];
+		int length = 0;
+		for ( E element : collection ) {
+			if ( element != null )
+				sorted[length ++] = element;
+		}
+		Arrays.sort(sorted, 0, length, this::compareObjects);
+
+		int distinct = 0;
+		for ( int i = 0; i < length; i ++ ) {
+			if ( distinct == 0 || compareObjects(sorted[distinct - 1], sorted[i]) != 0 )
+				sorted[distinct ++] = sorted[i];
+		}
+
+		int count = Math.max(1, ( distinct + SPLIT_SIZE / 2 - 1 ) / ( SPLIT_SIZE / 2 ));
+		Object[] lower = new Object[count];
+		Partition<E>[] parts = newPartitions(count);
+		for ( int i = 0; i < count; i ++ ) {
+			int from = (int) ( (long) distinct * i / count );
+			int to = (int) ( (long) distinct * ( i + 1 ) / count );
+			if ( i > 0 )
+				lower[i] = sorted[from];
+			parts[i] = new Partition<E>(build(sorted, from, to));
+		}
+		this.directory = new AtomicReference<Directory<E>>(new Directory<E>(lower, parts));
+	}
+
+	/**
+	 * @return a directory with a single empty partition
+	 */
+	private static <E> Directory<E> emptyDirectory() {
+		Partition<E>[] parts = newPartitions(1);
+		parts[0] = new Partition<E>(null);
+		return new Directory<E>(new Object[1], parts);
+	}
+
+	/**
+	 * @param length - number of partitions
+	 * @return a new array of partitions
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> Partition<E>[] newPartitions(int length) {
+		return (Partition<E>[]) new Partition<?>[length];
+	}
+
+	/**
+	 * Compares two elements in the order of this tree
+	 * @param a - element to compare
+	 * @param b - element to compare with
+	 * @return a negative number, zero or a positive number as a is less than,
+	 * 	equal to or greater than b
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(E a, E b) {
+		if ( comparator != null )
+			return comparator.compare(a, b);
+		return ((Comparable<? super E>) a).compareTo(b);
+	}
+
+	/**
+	 * Compares two elements held in an Object array
+	 * @param a - element to compare
+	 * @param b - element to compare with
+	 * @return the result of compare(a, b)
+	 */
+	@SuppressWarnings("unchecked")
+	private int compareObjects(Object a, Object b) {
+		return compare((E) a, (E) b);
+	}
+
+	/**
+	 * Returns the height of a possibly empty subtree
+	 * @param node - root of the subtree
+	 * @return the height of the subtree or zero if it is empty
+	 */
+	private static int heightOf(Node<?> node) {
+		return ( node == null ) ? 0 : node.height;
+	}
+
+	/**
+	 * Returns the number of Nodes in a possibly empty subtree
+	 * @param node - root of the subtree
+	 * @return the size of the subtree or zero if it is empty
+	 */
+	private static int sizeOf(Node<?> node) {
+		return ( node == null ) ? 0 : node.size;
+	}
+
+	/**
+	 * @param node - the root of a partition
+	 * @return true if the root is the marker of a frozen partition
+	 */
+	private static boolean isFrozen(Node<?> node) {
+		return node != null && node.data == null;
+	}
+
+	/**
+	 * @param node - the root of a partition
+	 * @return the root of its elements, unwrapping a frozen marker
+	 */
+	private static <E> Node<E> contentOf(Node<E> node) {
+		return isFrozen(node) ? node.left : node;
+	}
+
+	/**
+	 * @param part - a partition
+	 * @return the root of the current version of its elements
+	 */
+	private static <E> Node<E> read(Partition<E> part) {
+		return contentOf(part.root.get());
+	}
+
+	/**
+	 * Finds the partition an element belongs in
+	 * @param dir - the directory
+	 * @param data - the element
+	 * @return the index of the last partition whose lower bound is not greater than data
+	 */
+	private int indexOf(Directory<E> dir, E data) {
+		int low = 1, high = dir.lower.length - 1;
+		while ( low <= high ) {
+			int middle = ( low + high ) >>> 1;
+			if ( compareObjects(dir.lower[middle], data) <= 0 )
+				low = middle + 1;
+			else
+				high = middle - 1;
+		}
+		return low - 1;
+	}
+
+	/**
+	 * Builds a balanced subtree from sorted elements
+	 * @param sorted - the elements
+	 * @param from - index of the first element, inclusive
+	 * @param to - index of the last element, exclusive
+	 * @return root of the subtree, or null if the range is empty
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> Node<E> build(Object[] sorted, int from, int to) {
+		if ( from >= to )
+			return null;
+		int middle = ( from + to ) >>> 1;
+		return new Node<E>((E) sorted[middle], build(sorted, from, middle), build(sorted, middle + 1, to));
+	}
+
+	/**
+	 * Copies the elements of a subtree in order into an array
+	 * @param node - root of the subtree
+	 * @param out - the array
+	 * @param index - where the first element goes
+	 * @return the index after the last element
+	 */
+	private static int flatten(Node<?> node, Object[] out, int index) {
+		ArrayDeque<Node<?>> stack = new ArrayDeque<Node<?>>();
+		while ( node != null || !stack.isEmpty() ) {
+			while ( node != null ) {
+				stack.push(node);
+				node = node.left;
+			}
+			node = stack.pop();
+			out[index ++] = node.data;
+			node = node.right;
+		}
+		return index;
+	}
+
+	/**
+	 * Creates a Node above two subtrees whose heights differ by at most two,
+	 * 	rotating as needed so that the result satisfies the AVL property
+	 * @param data - data of the new Node
+	 * @param left - left subtree
+	 * @param right - right subtree
+	 * @return root of the balanced subtree
+	 */
+	private static <E> Node<E> balance(E data, Node<E> left, Node<E> right) {
+		int diff = heightOf(left) - heightOf(right);
+
+		if ( diff > 1 ) {
+			if ( heightOf(left.left) >= heightOf(left.right) )
+				return new Node<E>(left.data, left.left, new Node<E>(data, left.right, right));
+			Node<E> pivot = left.right;
+			return new Node<E>(pivot.data, new Node<E>(left.data, left.left, pivot.left),
+					new Node<E>(data, pivot.right, right));
+		}
+		if ( diff < -1 ) {
+			if ( heightOf(right.right) >= heightOf(right.left) )
+				return new Node<E>(right.data, new Node<E>(data, left, right.left), right.right);
+			Node<E> pivot = right.left;
+			return new Node<E>(pivot.data, new Node<E>(data, left, pivot.left),
+					new Node<E>(right.data, pivot.right, right.right));
+		}
+		return new Node<E>(data, left, right);
+	}
+
+	/**
+	 * Returns a copy of a subtree with the specified element added
+	 * @param node - root of the subtree
+	 * @param data - data to add
+	 * @return root of the new subtree, or node itself if data is already present
+	 */
+	private Node<E> insert(Node<E> node, E data) {
+		if ( node == null )
+			return new Node<E>(data, null, null);
+
+		int comp = compare(data, node.data);
+		if ( comp < 0 ) {
+			Node<E> left = insert(node.left, data);
+			return ( left == node.left ) ? node : balance(node.data, left, node.right);
+		}
+		if ( comp > 0 ) {
+			Node<E> right = insert(node.right, data);
+			return ( right == node.right ) ? node : balance(node.data, node.left, right);
+		}
+		return node;
+	}
+
+	/**
+	 * Returns a copy of a subtree with the specified element removed
+	 * @param node - root of the subtree
+	 * @param data - data to remove
+	 * @return root of the new subtree, or node itself if data is not present
+	 */
+	private Node<E> delete(Node<E> node, E data) {
+		if ( node == null )
+			return null;
+
+		int comp = compare(data, node.data);
+		if ( comp < 0 ) {
+			Node<E> left = delete(node.left, data);
+			return ( left == node.left ) ? node : balance(node.data, left, node.right);
+		}
+		if ( comp > 0 ) {
+			Node<E> right = delete(node.right, data);
+			return ( right == node.right ) ? node : balance(node.data, node.left, right);
+		}
+
+		if ( node.left == null )
+			return node.right;
+		if ( node.right == null )
+			return node.left;
+
+		//if the node has 2 children, replace it with the right smallest
+		Node<E> successor = node.right;
+		while ( successor.left != null )
+			successor = successor.left;
+		return balance(successor.data, node.left, deleteFirst(node.right));
+	}
+
+	/**
+	 * Returns a copy of a non-empty subtree with its smallest element removed
+	 * @param node - root of the subtree
+	 * @return root of the new subtree
+	 */
+	private static <E> Node<E> deleteFirst(Node<E> node) {
+		if ( node.left == null )
+			return node.right;
+		return balance(node.data, deleteFirst(node.left), node.right);
+	}
+
+	/**
+	 * Returns a copy of a non-empty subtree with its largest element removed
+	 * @param node - root of the subtree
+	 * @return root of the new subtree
+	 */
+	private static <E> Node<E> deleteLast(Node<E> node) {
+		if ( node.right == null )
+			return node.left;
+		return balance(node.data, node.left, deleteLast(node.right));
+	}
+
+	/**
+	 * Waits until a partition found frozen has been replaced. Partitions are
+	 * 	only frozen with the restructure lock held, and the new directory is
+	 * 	published before it is released
+	 * @param dir - the directory the frozen partition was found in
+	 */
+	private void awaitRestructure(Directory<E> dir) {
+		if ( directory.get() == dir ) {
+			restructureLock.lock();
+			restructureLock.unlock();
+		}
+	}
+
+	/**
+	 * Freezes a partition: its current version becomes final, and writers
+	 * 	that find it wait for the directory that replaces it. Called with
+	 * 	the restructure lock held
+	 * @param part - the partition
+	 * @return the root of its final version
+	 */
+	private static <E> Node<E> freeze(Partition<E> part) {
+		while ( true ) {
+			Node<E> current = part.root.get();
+			if ( part.root.compareAndSet(current, new Node<E>(null, current, null)) )
+				return current;
+		}
+	}
+
+	/**
+	 * Splits or merges the partition an element was just added to or removed
+	 * 	from, if its size calls for it and no other thread is restructuring
+	 * @param part - the partition
+	 * @param data - the element
+	 */
+	private void restructure(Partition<E> part, E data) {
+		if ( !restructureLock.tryLock() )
+			return;
+		try {
+			Directory<E> dir = directory.get();
+			int index = indexOf(dir, data);
+			if ( dir.parts[index] != part )
+				return;
+
+			int size = sizeOf(read(part));
+			if ( size > SPLIT_SIZE )
+				split(dir, index);
+			else if ( size < MERGE_SIZE ) {
+				//merge with whichever neighbour keeps the result small enough
+				if ( index + 1 < dir.parts.length && size + sizeOf(read(dir.parts[index + 1])) < SPLIT_SIZE / 2 )
+					merge(dir, index);
+				else if ( index > 0 && size + sizeOf(read(dir.parts[index - 1])) < SPLIT_SIZE / 2 )
+					merge(dir, index - 1);
+			}
+		} finally {
+			restructureLock.unlock();
+		}
+	}
+
+	/**
+	 * Replaces a partition with two holding half of its elements each.
+	 * 	Called with the restructure lock held
+	 * @param dir - the current directory
+	 * @param index - index of the partition
+	 */
+	private void split(Directory<E> dir, int index) {
+		Node<E> content = freeze(dir.parts[index]);
+		Object[] sorted = new Object[sizeOf(content)];
+		int length = flatten(content, sorted, 0);
+		int middle = length / 2;
+
+		int count = dir.parts.length;
+		Object[] lower = new Object[count + 1];
+		Partition<E>[] parts = newPartitions(count + 1);
+		System.arraycopy(dir.lower, 0, lower, 0, index + 1);
+		System.arraycopy(dir.lower, index + 1, lower, index + 2, count - index - 1);
+		System.arraycopy(dir.parts, 0, parts, 0, index);
+		System.arraycopy(dir.parts, index + 1, parts, index + 2, count - index - 1);
+		lower[index + 1] = sorted[middle];
+		parts[index] = new Partition<E>(ConcurrentBST.<E>build(sorted, 0, middle));
+		parts[index + 1] = new Partition<E>(ConcurrentBST.<E>build(sorted, middle, length));
+		directory.set(new Directory<E>(lower, parts));
+	}
+
+	/**
+	 * Replaces two neighbouring partitions with one holding the elements of
+	 * 	both. Called with the restructure lock held
+	 * @param dir - the current directory
+	 * @param index - index of the first of the two partitions
+	 */
+	private void merge(Directory<E> dir, int index) {
+		Node<E> first = freeze(dir.parts[index]);
+		Node<E> second = freeze(dir.parts[index + 1]);
+		Object[] sorted = new Object[sizeOf(first) + sizeOf(second)];
+		int length = flatten(second, sorted, flatten(first, sorted, 0));
+
+		int count = dir.parts.length;
+		Object[] lower = new Object[count - 1];
+		Partition<E>[] parts = newPartitions(count - 1);
+		System.arraycopy(dir.lower, 0, lower, 0, index + 1);
+		System.arraycopy(dir.lower, index + 2, lower, index + 1, count - index - 2);
+		System.arraycopy(dir.parts, 0, parts, 0, index);
+		System.arraycopy(dir.parts, index + 2, parts, index + 1, count - index - 2);
+		parts[index] = new Partition<E>(ConcurrentBST.<E>build(sorted, 0, length));
+		directory.set(new Directory<E>(lower, parts));
+	}
+
+	/**
+	 * Returns the height of this tree: the number of levels a search passes
+	 * 	through, counting the binary search of the directory and the tallest
+	 * 	partition. The height of a single leaf is 1.
+	 * @return the height of this tree or zero if the tree is empty
+	 */
+	public int height() {
+		Directory<E> dir = directory.get();
+		int height = 0;
+		for ( Partition<E> part : dir.parts )
+			height = Math.max(height, heightOf(read(part)));
+		if ( height == 0 )
+			return 0;
+		return height + 32 - Integer.numberOfLeadingZeros(dir.parts.length - 1);
+	}
+
+	/**
+	 * Returns the number of partitions the key range is currently cut into
+	 * @return the number of partitions
+	 */
+	public int partitions() {
+		return directory.get().parts.length;
+	}
+
+	/**
+	 * Adds the specified element to this set if it is not already present
+	 * @param data - data to be added to this set
+	 * @return true if this set did not already contain the specified element
+	 * @throw NullPointerException - if the specified element is null
+	 * @throw ClassCastException - if the element cannot be compared with the elements in this set
+	 */
+	public boolean add(E data) {
+		if ( data == null )
+			throw new NullPointerException("Null data");
+
+		while ( true ) {
+			Directory<E> dir = directory.get();
+			Partition<E> part = dir.parts[indexOf(dir, data)];
+			Node<E> current = part.root.get();
+			if ( isFrozen(current) ) {
+				awaitRestructure(dir);
+				continue;
+			}
+			if ( current == null )
+				compare(data, data); //type check, as a single element is never compared
+			Node<E> updated = insert(current, data);
+			if ( updated == current )
+				return false;
+			if ( part.root.compareAndSet(current, updated) ) {
+				if ( updated.size > SPLIT_SIZE )
+					restructure(part, data);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection to this tree. Each
+	 * 	element is added atomically, but the collection as a whole is not
+	 * @param collection - collection containing elements to be added to this set
+	 * @return true if this set changed as a result of the call
+	 * @throw NullPointerException - if the specified collection is null or if any
+	 * 	element of the collection is null
+	 */
+	public boolean addAll(Collection<? extends E> collection) {
+		if ( collection == null )
+			throw new NullPointerException("Null collection");
+
+		boolean modified = false;
+		for ( E data : collection ) {
+			if ( data == null )
+				throw new NullPointerException("Null element in the collection");
+			if ( add(data) )
+				modified = true;
+		}
+		return modified;
+	}
+
+	/**
+	 * Removes the specified element from this tree if it is present.
+	 * @param o - object to be removed from this set, if present
+	 * @return true if this set contained the specified element
+	 * @throw ClassCastException - if the specified object cannot be compared
+	 * 	with the elements currently in this tree
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object o) {
+		if ( o == null )
+			throw new NullPointerException("Null element indicated");
+
+		E data = (E) o;
+		while ( true ) {
+			Directory<E> dir = directory.get();
+			Partition<E> part = dir.parts[indexOf(dir, data)];
+			Node<E> current = part.root.get();
+			if ( isFrozen(current) ) {
+				awaitRestructure(dir);
+				continue;
+			}
+			Node<E> updated = delete(current, data);
+			if ( updated == current )
+				return false;
+			if ( part.root.compareAndSet(current, updated) ) {
+				if ( sizeOf(updated) < MERGE_SIZE && dir.parts.length > 1 )
+					restructure(part, data);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Retrieves and removes the first (lowest) element of the first non-empty
+	 * 	partition, or returns null if this tree is empty
+	 * @param last - whether to remove the last (true) or the first (false) element
+	 * @return the element, or null if this tree is empty
+	 */
+	private E poll(boolean last) {
+		while ( true ) {
+			Directory<E> dir = directory.get();
+			int count = dir.parts.length;
+			boolean retry = false;
+			for ( int i = 0; i < count && !retry; i ++ ) {
+				Partition<E> part = dir.parts[last ? count - 1 - i : i];
+				Node<E> current = part.root.get();
+				if ( isFrozen(current) ) {
+					awaitRestructure(dir);
+					retry = true;
+				}
+				else if ( current != null ) {
+					Node<E> end = current;
+					while ( ( last ? end.right : end.left ) != null )
+						end = last ? end.right : end.left;
+					Node<E> updated = last ? deleteLast(current) : deleteFirst(current);
+					if ( !part.root.compareAndSet(current, updated) ) {
+						retry = true;
+						continue;
+					}
+					if ( sizeOf(updated) < MERGE_SIZE && count > 1 )
+						restructure(part, end.data);
+					return end.data;
+				}
+			}
+			if ( !retry )
+				return null;
+		}
+	}
+
+	/**
+	 * Retrieves and removes the first (lowest) element, or returns null if
+	 * 	this tree is empty. An element added concurrently below the one
+	 * 	returned, in another partition, may be missed
+	 * @return the first element, or null if this tree is empty
+	 */
+	public E pollFirst() {
+		return poll(false);
+	}
+
+	/**
+	 * Retrieves and removes the last (highest) element, or returns null if
+	 * 	this tree is empty. An element added concurrently above the one
+	 * 	returned, in another partition, may be missed
+	 * @return the last element, or null if this tree is empty
+	 */
+	public E pollLast() {
+		return poll(true);
+	}
+
+	/**
+	 * Removes all of the elements from this set. Elements added concurrently
+	 * 	may or may not be removed
+	 */
+	public void clear() {
+		restructureLock.lock();
+		try {
+			for ( Partition<E> part : directory.get().parts )
+				freeze(part);
+			directory.set(ConcurrentBST.<E>emptyDirectory());
+		} finally {
+			restructureLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns true if this set contains the specified element.
+	 * @param o - object to be checked for containment in this set
+	 * @return true if this set contains the specified element
+	 * @throw ClassCastException - if the specified object cannot be compared with
+	 * 	the elements currently in the set
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean contains(Object o) {
+		if ( o == null )
+			throw new NullPointerException("Null data");
+
+		E data = (E) o;
+		Directory<E> dir = directory.get();
+		Node<E> current = read(dir.parts[indexOf(dir, data)]);
+		while ( current != null ) {
+			int comp = compare(data, current.data);
+			if ( comp == 0 )
+				return true;
+			current = ( comp < 0 ) ? current.left : current.right;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of elements in this tree, summed over the partitions
+	 * 	one at a time
+	 * @return the number of elements in this tree
+	 */
+	public int size() {
+		int size = 0;
+		for ( Partition<E> part : directory.get().parts )
+			size += sizeOf(read(part));
+		return size;
+	}
+
+	/**
+	 * Returns true if this set contains no elements
+	 * @return true if this set contains no elements
+	 */
+	public boolean isEmpty() {
+		for ( Partition<E> part : directory.get().parts ) {
+			if ( read(part) != null )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the first or last element of the first non-empty partition
+	 * 	from one end of a directory
+	 * @param dir - the directory
+	 * @param from - index of the partition to start from
+	 * @param last - whether to look for the last (true) or the first (false) element,
+	 * 	moving down (true) or up (false) the partitions
+	 * @return the element, or null if there is none
+	 */
+	private E end(Directory<E> dir, int from, boolean last) {
+		for ( int i = from; i >= 0 && i < dir.parts.length; i += last ? -1 : 1 ) {
+			Node<E> current = read(dir.parts[i]);
+			if ( current == null )
+				continue;
+			while ( ( last ? current.right : current.left ) != null )
+				current = last ? current.right : current.left;
+			return current.data;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the first (lowest) element currently in this tree
+	 * @return the first (lowest) element currently in this tree
+	 * @throw NoSuchElementException - if this set is empty
+	 */
+	public E first() {
+		E data = end(directory.get(), 0, false);
+		if ( data == null )
+			throw new NoSuchElementException("Empty tree");
+		return data;
+	}
+
+	/**
+	 * Returns the last (highest) element currently in this tree
+	 * @return the last (highest) element currently in this tree
+	 * @throw NoSuchElementException - if this set is empty
+	 */
+	public E last() {
+		Directory<E> dir = directory.get();
+		E data = end(dir, dir.parts.length - 1, true);
+		if ( data == null )
+			throw new NoSuchElementException("Empty tree");
+		return data;
+	}
+
+	/**
+	 * Finds the nearest element to a given element: in the current version of
+	 * 	its partition, or else at the near end of the next non-empty partition
+	 * @param data - the value to match
+	 * @param above - whether to look above (true) or below (false) data
+	 * @param inclusive - whether data itself matches
+	 * @return the matching element, or null if there is none
+	 */
+	private E near(E data, boolean above, boolean inclusive) {
+		if ( data == null )
+			throw new NullPointerException("Null data");
+
+		Directory<E> dir = directory.get();
+		int index = indexOf(dir, data);
+		Node<E> current = read(dir.parts[index]);
+		E best = null;
+		while ( current != null ) {
+			int comp = compare(data, current.data);
+			if ( comp == 0 && inclusive )
+				return current.data;
+			if ( above ? comp < 0 : comp > 0 ) {
+				best = current.data;
+				current = above ? current.left : current.right;
+			}
+			else
+				current = above ? current.right : current.left;
+		}
+		if ( best != null )
+			return best;
+		return end(dir, above ? index + 1 : index - 1, !above);
+	}
+
+	/**
+	 * Returns the least element in this tree greater than or equal to
+	 * 	the given element, or null if there is no such element.
+	 * @param data - the value to match
+	 * @return the least element greater than or equal to e, or null if
+	 * 	there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E ceiling(E data) {
+		return near(data, true, true);
+	}
+
+	/**
+	 * Returns the greatest element in this set less than or equal to
+	 * the given element, or null if there is no such element
+	 * @param data - the value to match
+	 * @return the greatest element less than or equal to e, or null if
+	 * 	there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E floor(E data) {
+		return near(data, false, true);
+	}
+
+	/**
+	 * Returns the least element in this tree strictly greater than the given element,
+	 * or null if there is no such element
+	 * @param data - the value to match
+	 * @return the least element greater than e, or null if there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E higher(E data) {
+		return near(data, true, false);
+	}
+
+	/**
+	 * Returns the greatest element in this set strictly less than the given element,
+	 * 	or null if there is no such element
+	 * @param data - the value to match
+	 * @return the greatest element less than e, or null if there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E lower(E data) {
+		return near(data, false, false);
+	}
+
+	/**
+	 * Returns the comparator used to order the elements in this tree
+	 * @return the comparator, or null if this tree uses the natural ordering of its elements
+	 */
+	public Comparator<? super E> comparator() {
+		return comparator;
+	}
+
+	/**
+	 * Returns a collection whose elements range from fromElement, inclusive,
+	 * 	to toElement, inclusive, read one partition version at a time
+	 * @param fromElement - low endpoint (inclusive) of the returned collection
+	 * @param toElement - high endpoint (inclusive) of the returned collection
+	 * @return a collection containing a portion of this tree whose elements range
+	 * 	from fromElement, inclusive, to toElement, inclusive
+	 * @throw NullPointerException - if fromElement or toElement is null
+	 * @throw IllegalArgumentException - if fromElement is greater than toElement
+	 */
+	public ArrayList<E> getRange(E fromElement, E toElement) {
+		if ( fromElement == null || toElement == null )
+			throw new NullPointerException("Null element indicated");
+
+		if ( compare(fromElement, toElement) > 0 )
+			throw new IllegalArgumentException("fromElement > toElement");
+
+		ArrayList<E> list = new ArrayList<E>();
+		Iter iter = new Iter(fromElement);
+		while ( iter.hasNext() ) {
+			E data = iter.next();
+			if ( compare(data, toElement) > 0 )
+				break;
+			list.add(data);
+		}
+		return list;
+	}
+
+	/**
+	 * Returns a string representation of this tree
+	 * @return a string representation of this collection
+	 */
+	@Override
+	public String toString() {
+		StringBuilder tree = new StringBuilder();
+		tree.append("[");
+		Iterator<E> iter = iterator();
+		while ( iter.hasNext() ) {
+			tree.append(String.valueOf(iter.next()));
+			if ( iter.hasNext() )
+				tree.append(", ");
+		}
+		tree.append("]");
+		return tree.toString();
+	}
+
+	/**
+	 * A weakly consistent inorder iterator of a ConcurrentBST object. It traverses
+	 * 	one partition version at a time, and when that is exhausted looks up
+	 * 	the elements after the last one returned in the current directory, so
+	 * 	it returns elements in ascending order without repeats, survives splits
+	 * 	and merges, and never throws ConcurrentModificationException
+	 */
+	class Iter implements Iterator<E> {
+		/**
+		 * Nodes whose data and right subtree are still to be visited
+		 */
+		ArrayDeque<Node<E>> stack;
+
+		/**
+		 * the element returned by the last call to next(), or null
+		 */
+		E lastReturned;
+
+		/**
+		 * the bound the next partition is read from, whether it is inclusive,
+		 * 	and whether the last partition has been read
+		 */
+		E cursor;
+		boolean inclusive, exhausted;
+
+		/**
+		 * default constructor
+		 */
+		public Iter() {
+			this(null);
+		}
+
+		/**
+		 * constructs an iterator starting at the first element not less than a bound
+		 * @param from - the bound, or null to start at the first element
+		 */
+		Iter(E from) {
+			stack = new ArrayDeque<Node<E>>();
+			cursor = from;
+			inclusive = true;
+		}
+
+		/**
+		 * fills the stack with the path to the elements after the cursor, from
+		 * 	the first partition at or after it that has any
+		 */
+		private void seek() {
+			Directory<E> dir = directory.get();
+			int index = ( cursor == null ) ? 0 : indexOf(dir, cursor);
+			for ( ; index < dir.parts.length && stack.isEmpty(); index ++ ) {
+				Node<E> current = read(dir.parts[index]);
+				while ( current != null ) {
+					int comp = ( cursor == null ) ? -1 : compare(cursor, current.data);
+					if ( comp < 0 || ( comp == 0 && inclusive ) ) {
+						stack.push(current);
+						current = current.left;
+					}
+					else
+						current = current.right;
+				}
+			}
+			if ( stack.isEmpty() )
+				exhausted = true;
+		}
+
+		/**
+		 * pushes a Node and all of its left descendants onto the stack
+		 * @param node - the first Node to push
+		 */
+		private void pushLeft(Node<E> node) {
+			while ( node != null ) {
+				stack.push(node);
+				node = node.left;
+			}
+		}
+
+		/**
+		 * get the next element
+		 * @return the next element
+		 * @throw NoSuchElementException if there are no more elements
+		 */
+		@Override
+		public E next() {
+			if ( !hasNext() ) throw new
+				NoSuchElementException("reached the end of this collection");
+			Node<E> node = stack.pop();
+			pushLeft(node.right);
+			lastReturned = node.data;
+			cursor = lastReturned;
+			inclusive = false;
+			return lastReturned;
+		}
+
+		/**
+		 * checks if the list has the next element
+		 * @return true if has next
+		 */
+		@Override
+		public boolean hasNext() {
+			if ( stack.isEmpty() && !exhausted )
+				seek();
+			return !stack.isEmpty();
+		}
+
+		/**
+		 * removes the last element returned by next() from the current version of the tree
+		 * @throw IllegalStateException if next() has not been called, or remove()
+		 * 	has already been called after the last call to next()
+		 */
+		@Override
+		public void remove() {
+			if ( lastReturned == null )
+				throw new IllegalStateException("next() has not been called");
+			ConcurrentBST.this.remove(lastReturned);
+			lastReturned = null;
+		}
+	}
+
+	/**
+	 * Returns a weakly consistent iterator over the elements in this tree in ascending order
+	 * @return an iterator over the elements in this set in ascending order
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iter();
+	}
+
+}
\ No newline at end of file
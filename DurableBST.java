@@ -0,0 +1,876 @@
+package datastructure;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * This is a BST kept in memory and made durable in a directory. Every change
+ * 	is appended to a write-ahead log before the call returns; calls made at
+ * 	the same time from several threads share one fsync (group commit). Once
+ * 	the log grows past a threshold, the tree is checkpointed to a BSTSnapshot
+ * 	file and a new log is started. Opening the directory again loads the
+ * 	latest checkpoint and replays the logs written after it.
+ * The directory holds:
+ * - checkpoint-N: the elements of the tree before log-N was started
+ * - log-N: a header (int magic, int version), then records of
+ * 	int length, byte type, int count, count length-prefixed elements, int CRC32
+ * Lookups use the in-memory tree and touch no file, and take no lock. They see
+ * 	a change only once it is durable: each change is made to a snapshot of the
+ * 	tree, which is published to the lookups after its log record is forced to
+ * 	disk. A change whose write fails is never seen, and once a write fails the
+ * 	lookups keep answering from the last durable state while every change
+ * 	throws. Changes are serialized by the lock of this object.
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public class DurableBST<E> extends Object implements Closeable {
+	/**
+	 * The first four bytes of a log file, "BSTL"
+	 */
+	private static final int MAGIC = 0x4253544C;
+
+	/**
+	 * The version of the log format written by this class
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The number of bytes of the log header
+	 */
+	private static final int HEADER = 2 * Integer.BYTES;
+
+	/**
+	 * Types of log records
+	 */
+	private static final byte ADD = 1, REMOVE = 2, CLEAR = 3;
+
+	/**
+	 * File name prefixes
+	 */
+	private static final String CHECKPOINT = "checkpoint-", LOG = "log-";
+
+	/**
+	 * The log size after which a checkpoint is taken by default
+	 */
+	public static final long DEFAULT_CHECKPOINT_BYTES = 64L << 20;
+
+	/**
+	 * The directory holding the checkpoints and logs
+	 */
+	private final Path directory;
+
+	/**
+	 * encoding of the elements in the checkpoints and logs
+	 */
+	private final KeyCodec<E> codec;
+
+	/**
+	 * The order of the elements, or null for their natural ordering
+	 */
+	private final Comparator<? super E> comparator;
+
+	/**
+	 * The log size after which a checkpoint is taken
+	 */
+	private final long checkpointBytes;
+
+	/**
+	 * The elements with every logged change, durable or not; guarded by this.
+	 * 	Each change is made to a snapshot of it, so a tree once published is
+	 * 	never modified
+	 */
+	private BST<E> tree;
+
+	/**
+	 * The elements with every durable change, read by the lookups without the lock
+	 */
+	private volatile BST<E> published;
+
+	/**
+	 * The number of changes logged, and the number of those in published;
+	 * 	guarded by this
+	 */
+	private long logged, publishedChanges;
+
+	/**
+	 * The log being appended to, and its number
+	 */
+	private Log log;
+	private long generation;
+
+	/**
+	 * Held while a checkpoint is being written, so that only one is written at a time
+	 */
+	private final Object checkpointLock = new Object();
+
+	/**
+	 * whether close() has been called or a write to the log has failed
+	 */
+	private boolean closed;
+
+	/**
+	 * Opens, or creates, a durable tree of naturally ordered elements in a directory
+	 * @param directory - directory holding the tree
+	 * @param codec - encoding of the elements
+	 * @throw IOException - if the directory cannot be read or holds a corrupt checkpoint or log
+	 * @throw NullPointerException - if any argument is null
+	 */
+	public DurableBST(Path directory, KeyCodec<E> codec) throws IOException {
+		this(directory, codec, null, DEFAULT_CHECKPOINT_BYTES);
+	}
+
+	/**
+	 * Opens, or creates, a durable tree in a directory
+	 * @param directory - directory holding the tree
+	 * @param codec - encoding of the elements
+	 * @param comparator - the order of the elements, or null for their natural
+	 * 	ordering; it must be the order the directory was written with
+	 * @param checkpointBytes - log size after which a checkpoint is taken
+	 * @throw IOException - if the directory cannot be read or holds a corrupt checkpoint or log
+	 * @throw NullPointerException - if the directory or the codec is null
+	 * @throw IllegalArgumentException - if checkpointBytes is not positive
+	 */
+	public DurableBST(Path directory, KeyCodec<E> codec, Comparator<? super E> comparator,
+			long checkpointBytes) throws IOException {
+		if ( directory == null || codec == null )
+			throw new NullPointerException("Null argument");
+		if ( checkpointBytes <= 0 )
+			throw new IllegalArgumentException("Non-positive checkpoint size");
+
+		this.directory = directory;
+		this.codec = codec;
+		this.comparator = comparator;
+		this.checkpointBytes = checkpointBytes;
+		Files.createDirectories(directory);
+		tree = recover();
+		published = tree;
+		log = new Log(directory.resolve(LOG + generation));
+		syncDirectory();
+	}
+
+	/**
+	 * Loads the latest checkpoint, replays the logs written after it and
+	 * 	deletes the files it supersedes. A record cut short by a crash at the
+	 * 	end of the last log is discarded, and the log truncated before it
+	 * @return the recovered tree
+	 * @throw IOException - if a checkpoint or log is corrupt
+	 */
+	private BST<E> recover() throws IOException {
+		List<Long> checkpoints = generations(CHECKPOINT);
+		List<Long> logs = generations(LOG);
+
+		long start = checkpoints.isEmpty() ? 0 : checkpoints.get(checkpoints.size() - 1);
+		BST<E> recovered = checkpoints.isEmpty() ? new BST<E>(comparator)
+			: BSTSnapshot.read(directory.resolve(CHECKPOINT + start), codec, comparator);
+
+		generation = start;
+		for ( int i = 0; i < logs.size(); i ++ ) {
+			long number = logs.get(i);
+			if ( number < start )
+				continue;
+			replay(recovered, directory.resolve(LOG + number), i == logs.size() - 1);
+			generation = number + 1;
+		}
+
+		deleteBefore(start);
+		return recovered;
+	}
+
+	/**
+	 * Lists the numbers of the files with a prefix, in ascending order
+	 * @param prefix - file name prefix
+	 * @return the numbers following the prefix
+	 * @throw IOException - if the directory cannot be read
+	 */
+	private List<Long> generations(String prefix) throws IOException {
+		List<Long> numbers = new ArrayList<Long>();
+		try ( DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*") ) {
+			for ( Path file : files ) {
+				try {
+					numbers.add(Long.parseLong(file.getFileName().toString().substring(prefix.length())));
+				} catch ( NumberFormatException e ) {
+					//a temporary file or a file that is not ours
+				}
+			}
+		}
+		Collections.sort(numbers);
+		return numbers;
+	}
+
+	/**
+	 * Deletes the checkpoints and logs older than a generation, and any
+	 * 	unfinished checkpoint
+	 * @param start - the generation of the latest checkpoint
+	 * @throw IOException - if a file cannot be deleted
+	 */
+	private void deleteBefore(long start) throws IOException {
+		for ( long number : generations(CHECKPOINT) ) {
+			if ( number < start )
+				Files.deleteIfExists(directory.resolve(CHECKPOINT + number));
+		}
+		for ( long number : generations(LOG) ) {
+			if ( number < start )
+				Files.deleteIfExists(directory.resolve(LOG + number));
+		}
+		try ( DirectoryStream<Path> files = Files.newDirectoryStream(directory, CHECKPOINT + "*.tmp") ) {
+			for ( Path file : files )
+				Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Applies the records of a log to a tree
+	 * @param target - tree to apply the records to
+	 * @param file - the log
+	 * @param last - whether this is the last log, whose end may be torn
+	 * @throw IOException - if the log cannot be read or is corrupt
+	 */
+	private void replay(BST<E> target, Path file, boolean last) throws IOException {
+		try ( FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE) ) {
+			if ( channel.size() > Integer.MAX_VALUE )
+				throw new IOException("Log too large: " + file);
+			ByteBuffer in = ByteBuffer.allocate((int) channel.size());
+			while ( in.hasRemaining() && channel.read(in) >= 0 )
+				;
+			in.flip();
+
+			//a log cut short while its header was written holds no records
+			if ( in.remaining() < HEADER )
+				return;
+			if ( in.getInt() != MAGIC || in.getInt() != VERSION )
+				throw new IOException("Not a log: " + file);
+
+			CRC32 crc = new CRC32();
+			while ( in.hasRemaining() ) {
+				int start = in.position();
+				int length = ( in.remaining() >= Integer.BYTES ) ? in.getInt() : -1;
+				boolean valid = length >= 1 + Integer.BYTES && in.remaining() >= length + Integer.BYTES;
+				if ( valid ) {
+					ByteBuffer record = in.duplicate();
+					record.limit(in.position() + length);
+					crc.reset();
+					crc.update(record);
+					valid = (int) crc.getValue() == in.getInt(in.position() + length);
+				}
+				if ( !valid ) {
+					if ( !last )
+						throw new IOException("Corrupt log: " + file);
+					channel.truncate(start);
+					channel.force(true);
+					return;
+				}
+
+				ByteBuffer record = in.duplicate();
+				record.limit(in.position() + length);
+				apply(target, record);
+				in.position(in.position() + length + Integer.BYTES);
+			}
+		}
+	}
+
+	/**
+	 * Applies one log record to a tree
+	 * @param target - tree to apply the record to
+	 * @param record - type and payload of the record
+	 * @throw IOException - if the record is malformed
+	 */
+	private void apply(BST<E> target, ByteBuffer record) throws IOException {
+		byte type = record.get();
+		if ( type == CLEAR ) {
+			target.clear();
+			return;
+		}
+
+		int count = record.getInt();
+		List<E> elements = new ArrayList<E>(Math.max(0, Math.min(count, record.remaining())));
+		for ( int i = 0; i < count; i ++ ) {
+			int length = record.getInt();
+			int next = record.position() + length;
+			elements.add(codec.decode(record, length));
+			record.position(next);
+		}
+
+		if ( type == ADD )
+			target.addAll(elements);
+		else if ( type == REMOVE )
+			target.removeAll(elements);
+		else
+			throw new IOException("Unknown log record type " + type);
+	}
+
+	/**
+	 * Encodes a log record. Called before the change is applied to the tree,
+	 * 	so that an element the codec rejects leaves the tree untouched
+	 * @param type - type of the record
+	 * @param elements - elements of the record
+	 * @return the record, ready to be appended
+	 * @throw NullPointerException - if any of the elements is null
+	 */
+	private ByteBuffer record(byte type, Collection<? extends E> elements) {
+		int length = 1 + Integer.BYTES;
+		int[] lengths = new int[elements.size()];
+		int count = 0;
+		for ( E element : elements ) {
+			if ( element == null )
+				throw new NullPointerException("Null data");
+			lengths[count] = codec.encodedLength(element);
+			length += Integer.BYTES + lengths[count ++];
+		}
+
+		ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length + Integer.BYTES);
+		record.putInt(length).put(type).putInt(count);
+		count = 0;
+		for ( E element : elements ) {
+			record.putInt(lengths[count ++]);
+			codec.encode(element, record);
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), Integer.BYTES, length);
+		record.putInt((int) crc.getValue());
+		record.flip();
+		return record;
+	}
+
+	/**
+	 * A change appended to the log but not yet known to be durable
+	 */
+	private static final class Change<E> extends Object {
+		/**
+		 * The log the change was appended to, and its size with the change
+		 */
+		final Log log;
+		final long position;
+
+		/**
+		 * The elements with the change and every change before it, and the
+		 * 	number of changes they hold
+		 */
+		final BST<E> tree;
+		final long number;
+
+		/**
+		 * Constructs a Change
+		 * @param log - the log the change was appended to
+		 * @param position - the size of the log with the change
+		 * @param tree - the elements with the change
+		 * @param number - the number of changes the elements hold
+		 */
+		Change(Log log, long position, BST<E> tree, long number) {
+			this.log = log;
+			this.position = position;
+			this.tree = tree;
+			this.number = number;
+		}
+	}
+
+	/**
+	 * Appends an encoded record and makes the changed elements the tree that
+	 * 	later changes build on. Called with the lock held; the change is
+	 * 	neither durable nor seen by the lookups until commit() returns
+	 * @param record - the record returned by record()
+	 * @param next - the elements with the change, a snapshot of tree
+	 * @return the change to pass to commit()
+	 */
+	private Change<E> append(ByteBuffer record, BST<E> next) {
+		long position = log.append(record);
+		tree = next;
+		return new Change<E>(log, position, next, ++ logged);
+	}
+
+	/**
+	 * Returns the changes logged but not yet published, for a call that changes
+	 * 	nothing itself but whose answer depends on them. Called with the lock held
+	 * @return the latest change to pass to commit(), or null if every change is published
+	 */
+	private Change<E> pending() {
+		if ( tree == published )
+			return null;
+		return new Change<E>(log, log.size(), tree, logged);
+	}
+
+	/**
+	 * Makes elements the ones the lookups see, unless newer ones already are.
+	 * 	Called with the lock held, once the elements are durable
+	 * @param durable - the elements
+	 * @param number - the number of changes the elements hold
+	 */
+	private void publish(BST<E> durable, long number) {
+		if ( number > publishedChanges ) {
+			published = durable;
+			publishedChanges = number;
+		}
+	}
+
+	/**
+	 * Waits, without the lock, until a change is durable, then publishes it and
+	 * 	takes a checkpoint if the log has grown past the threshold
+	 * @param change - the change returned by append() or pending(), or null
+	 * @throw UncheckedIOException - if the log cannot be written
+	 */
+	private void commit(Change<E> change) {
+		if ( change == null )
+			return;
+
+		Log target = change.log;
+		try {
+			target.sync(change.position);
+		} catch ( IOException e ) {
+			synchronized ( this ) {
+				closed = true;
+			}
+			throw new UncheckedIOException("Write-ahead log failed; the tree is closed", e);
+		}
+		synchronized ( this ) {
+			publish(change.tree, change.number);
+		}
+
+		if ( target.size() >= checkpointBytes ) {
+			try {
+				checkpoint(checkpointBytes);
+			} catch ( IOException e ) {
+				throw new UncheckedIOException("Checkpoint failed; the change itself is durable", e);
+			}
+		}
+	}
+
+	/**
+	 * Throws if the tree may no longer be used
+	 * @throw IllegalStateException - if the tree is closed
+	 */
+	private void ensureOpen() {
+		if ( closed )
+			throw new IllegalStateException("Closed");
+	}
+
+	/**
+	 * Adds the specified element to this set if it is not already present,
+	 * 	returning once the change is durable
+	 * @param data - data to be added to this set
+	 * @return true if this set did not already contain the specified element
+	 * @throw NullPointerException - if the specified element is null
+	 * @throw UncheckedIOException - if the log cannot be written, or if a
+	 * 	checkpoint taken after the change fails
+	 */
+	public boolean add(E data) {
+		boolean added;
+		Change<E> change;
+		synchronized ( this ) {
+			ensureOpen();
+			if ( data == null )
+				throw new NullPointerException("Null data");
+			added = !tree.contains(data);
+			if ( added ) {
+				ByteBuffer record = record(ADD, Collections.singletonList(data));
+				BST<E> next = tree.snapshot();
+				next.add(data);
+				change = append(record, next);
+			}
+			else
+				change = pending();
+		}
+		commit(change);
+		return added;
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection to this set as one
+	 * 	log record, returning once the change is durable
+	 * @param collection - collection containing elements to be added to this set
+	 * @return true if this set changed as a result of the call
+	 * @throw NullPointerException - if the specified collection is null or if any
+	 * 	element of the collection is null
+	 * @throw UncheckedIOException - if the log cannot be written
+	 */
+	public boolean addAll(Collection<? extends E> collection) {
+		boolean added;
+		Change<E> change;
+		synchronized ( this ) {
+			ensureOpen();
+			if ( collection == null )
+				throw new NullPointerException("Null collection");
+			ByteBuffer record = record(ADD, collection);
+			BST<E> next = tree.snapshot();
+			added = next.addAll(collection);
+			change = added ? append(record, next) : pending();
+		}
+		commit(change);
+		return added;
+	}
+
+	/**
+	 * Removes the specified element from this set if it is present,
+	 * 	returning once the change is durable
+	 * @param data - element to be removed from this set, if present
+	 * @return true if this set contained the specified element
+	 * @throw NullPointerException - if the specified element is null
+	 * @throw UncheckedIOException - if the log cannot be written
+	 */
+	public boolean remove(E data) {
+		boolean removed;
+		Change<E> change;
+		synchronized ( this ) {
+			ensureOpen();
+			if ( data == null )
+				throw new NullPointerException("Null data");
+			removed = tree.contains(data);
+			if ( removed ) {
+				ByteBuffer record = record(REMOVE, Collections.singletonList(data));
+				BST<E> next = tree.snapshot();
+				next.remove(data);
+				change = append(record, next);
+			}
+			else
+				change = pending();
+		}
+		commit(change);
+		return removed;
+	}
+
+	/**
+	 * Removes all of the elements from this set, returning once the change is durable
+	 * @throw UncheckedIOException - if the log cannot be written
+	 */
+	public void clear() {
+		Change<E> change;
+		synchronized ( this ) {
+			ensureOpen();
+			if ( tree.isEmpty() )
+				change = pending();
+			else
+				change = append(record(CLEAR, Collections.<E>emptyList()), new BST<E>(comparator));
+		}
+		commit(change);
+	}
+
+	/**
+	 * Writes the current elements to a new checkpoint and starts a new log,
+	 * 	then deletes the checkpoint and logs it replaces. Changes made while
+	 * 	the checkpoint is written go to the new log and are not held up
+	 * @throw IOException - if the checkpoint cannot be written
+	 */
+	public void checkpoint() throws IOException {
+		checkpoint(0);
+	}
+
+	/**
+	 * Takes a checkpoint if the log has grown to a size, and holds records
+	 * 	not yet in a checkpoint
+	 * @param threshold - the log size
+	 * @throw IOException - if the checkpoint cannot be written
+	 */
+	private void checkpoint(long threshold) throws IOException {
+		synchronized ( checkpointLock ) {
+			BST<E> copy;
+			long start;
+			synchronized ( this ) {
+				ensureOpen();
+				if ( log.size() < threshold )
+					return;
+				if ( log.size() == HEADER && Files.exists(directory.resolve(CHECKPOINT + generation)) )
+					return;
+				start = ++ generation;
+				try {
+					log.close();
+					log = new Log(directory.resolve(LOG + start));
+				} catch ( IOException e ) {
+					closed = true;
+					throw e;
+				}
+				//closing the log made every change durable
+				publish(tree, logged);
+				copy = tree.snapshot();
+			}
+
+			BSTSnapshot.write(copy, codec, directory.resolve(CHECKPOINT + start));
+			deleteBefore(start);
+		}
+	}
+
+	/**
+	 * Forces the directory entries to disk, where the platform supports it
+	 */
+	private void syncDirectory() {
+		BSTSnapshot.syncDirectory(directory);
+	}
+
+	/**
+	 * Makes every change durable and closes the log. The set may not be used afterwards
+	 * @throw IOException - if the log cannot be written
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if ( closed )
+			return;
+		closed = true;
+		log.close();
+		publish(tree, logged);
+	}
+
+	/**
+	 * Returns true if this set contains the specified element.
+	 * @param data - element to be checked for containment in this set
+	 * @return true if this set contains the specified element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public boolean contains(E data) {
+		return published.contains(data);
+	}
+
+	/**
+	 * Returns the greatest element in this set less than or equal to
+	 * 	the given element, or null if there is no such element
+	 * @param data - the value to match
+	 * @return the greatest element less than or equal to data, or null
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E floor(E data) {
+		return published.floor(data);
+	}
+
+	/**
+	 * Returns the least element in this set greater than or equal to
+	 * 	the given element, or null if there is no such element
+	 * @param data - the value to match
+	 * @return the least element greater than or equal to data, or null
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E ceiling(E data) {
+		return published.ceiling(data);
+	}
+
+	/**
+	 * Returns the greatest element in this set strictly less than the given
+	 * 	element, or null if there is no such element
+	 * @param data - the value to match
+	 * @return the greatest element less than data, or null
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E lower(E data) {
+		return published.lower(data);
+	}
+
+	/**
+	 * Returns the least element in this set strictly greater than the given
+	 * 	element, or null if there is no such element
+	 * @param data - the value to match
+	 * @return the least element greater than data, or null
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E higher(E data) {
+		return published.higher(data);
+	}
+
+	/**
+	 * Returns the first (lowest) element currently in this set
+	 * @return the first (lowest) element
+	 * @throw NoSuchElementException - if this set is empty
+	 */
+	public E first() {
+		return published.first();
+	}
+
+	/**
+	 * Returns the last (highest) element currently in this set
+	 * @return the last (highest) element
+	 * @throw NoSuchElementException - if this set is empty
+	 */
+	public E last() {
+		return published.last();
+	}
+
+	/**
+	 * Returns a collection whose elements range from fromElement, inclusive,
+	 * 	to toElement, inclusive
+	 * @param fromElement - low endpoint (inclusive) of the returned collection
+	 * @param toElement - high endpoint (inclusive) of the returned collection
+	 * @return the elements of this set within the range
+	 * @throw NullPointerException - if fromElement or toElement is null
+	 * @throw IllegalArgumentException - if fromElement is greater than toElement
+	 */
+	public ArrayList<E> getRange(E fromElement, E toElement) {
+		return published.getRange(fromElement, toElement);
+	}
+
+	/**
+	 * Returns the number of elements in this set
+	 * @return the number of elements in this set
+	 */
+	public int size() {
+		return published.size();
+	}
+
+	/**
+	 * Returns true if this set contains no elements
+	 * @return true if this set contains no elements
+	 */
+	public boolean isEmpty() {
+		return published.isEmpty();
+	}
+
+	/**
+	 * Returns an independent in-memory copy of the durable elements of this
+	 * 	set in O(1), which may be read, iterated and modified freely
+	 * @return a snapshot of the elements
+	 */
+	public BST<E> snapshot() {
+		return published.snapshot();
+	}
+
+	/**
+	 * Returns a string representation of this set
+	 * @return a string representation of this set
+	 */
+	@Override
+	public String toString() {
+		return published.toString();
+	}
+
+	/**
+	 * This is a log file being appended to. Records are collected in a buffer;
+	 * 	sync() writes the buffer and forces it to disk. While one thread syncs,
+	 * 	others keep appending to a second buffer and then wait, and the first
+	 * 	of them to get the sync lock writes all of their records with one force
+	 */
+	private static final class Log extends Object implements Closeable {
+		/**
+		 * The initial size of the buffers
+		 */
+		private static final int BUFFER_SIZE = 1 << 16;
+
+		/**
+		 * The file
+		 */
+		private final FileChannel channel;
+
+		/**
+		 * The buffer records are appended to, and the number of bytes appended
+		 * 	to the file so far, including the header; guarded by this
+		 */
+		private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		private long appended;
+
+		/**
+		 * The buffer being written, and the number of bytes forced to disk;
+		 * 	guarded by syncLock
+		 */
+		private ByteBuffer spare = ByteBuffer.allocate(BUFFER_SIZE);
+		private long durable;
+
+		/**
+		 * The error a write or force failed with, after which nothing more
+		 * 	may be made durable, as records before it may be lost; guarded by syncLock
+		 */
+		private IOException failure;
+
+		/**
+		 * Held while writing and forcing
+		 */
+		private final Object syncLock = new Object();
+
+		/**
+		 * Creates a new log file and writes its header
+		 * @param file - the file, which must not exist
+		 * @throw IOException - if the file cannot be created
+		 */
+		Log(Path file) throws IOException {
+			channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+			ByteBuffer header = ByteBuffer.allocate(HEADER).putInt(MAGIC).putInt(VERSION);
+			header.flip();
+			while ( header.hasRemaining() )
+				channel.write(header);
+			channel.force(true);
+			appended = HEADER;
+			durable = HEADER;
+		}
+
+		/**
+		 * Appends a record to the buffer
+		 * @param record - the record
+		 * @return the size of the log with the record, to pass to sync()
+		 */
+		synchronized long append(ByteBuffer record) {
+			if ( buffer.remaining() < record.remaining() ) {
+				ByteBuffer larger = ByteBuffer.allocate(
+					Math.max(buffer.capacity() * 2, buffer.position() + record.remaining()));
+				buffer.flip();
+				larger.put(buffer);
+				buffer = larger;
+			}
+			appended += record.remaining();
+			buffer.put(record);
+			return appended;
+		}
+
+		/**
+		 * @return the number of bytes appended to the log, durable or not
+		 */
+		synchronized long size() {
+			return appended;
+		}
+
+		/**
+		 * Returns once the log is durable up to a position, writing and forcing
+		 * 	every record appended so far if it is not
+		 * @param position - the position
+		 * @throw IOException - if the file cannot be written
+		 */
+		void sync(long position) throws IOException {
+			synchronized ( syncLock ) {
+				if ( durable >= position )
+					return;
+				if ( failure != null )
+					throw new IOException("The log failed earlier", failure);
+
+				ByteBuffer batch;
+				long end;
+				synchronized ( this ) {
+					batch = buffer;
+					buffer = spare;
+					end = appended;
+				}
+				batch.flip();
+				try {
+					while ( batch.hasRemaining() )
+						channel.write(batch);
+					channel.force(false);
+				} catch ( IOException e ) {
+					failure = e;
+					throw e;
+				}
+				batch.clear();
+				spare = batch;
+				durable = end;
+			}
+		}
+
+		/**
+		 * Makes every record durable and closes the file
+		 * @throw IOException - if the file cannot be written
+		 */
+		@Override
+		public void close() throws IOException {
+			try {
+				sync(size());
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,370 @@
+package datastructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This is an immutable, array packed copy of a BST, made by BST.freeze().
+ * 	The elements are laid out in Eytzinger (breadth first) order, so the
+ * 	Nodes visited by a search are packed towards the front of the array and
+ * 	the first levels share a few cache lines. A search step only computes the
+ * 	next index from the comparison, with no data dependent branch, and the
+ * 	sorted order is kept alongside for rank, positional access and range scans.
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public final class FrozenBST<E> extends Object implements Iterable<E> {
+	/**
+	 * elements in Eytzinger order, starting at index 1; the children of
+	 * 	index k are at 2k and 2k + 1
+	 */
+	private final Object[] tree;
+
+	/**
+	 * the ascending position of the element at each index of tree
+	 */
+	private final int[] rankAt;
+
+	/**
+	 * elements in ascending order
+	 */
+	private final Object[] sorted;
+
+	/**
+	 * The order of the elements, or null for their natural ordering
+	 */
+	private final Comparator<? super E> comparator;
+
+	/**
+	 * Constructs a FrozenBST object from elements in strictly ascending order
+	 * @param sorted - distinct elements in ascending order, not copied
+	 * @param comparator - the order of the elements, or null for their natural ordering
+	 */
+	FrozenBST(Object[] sorted, Comparator<? super E> comparator) {
+		this.sorted = sorted;
+		this.comparator = comparator;
+		tree = new Object[sorted.length + 1];
+		rankAt = new int[sorted.length + 1];
+		fill(1, 0);
+	}
+
+	/**
+	 * Copies the sorted elements into the subtree of tree rooted at an index,
+	 * 	in order
+	 * @param k - root index of the subtree
+	 * @param i - position of the next sorted element to place
+	 * @return position of the next sorted element after the subtree
+	 */
+	private int fill(int k, int i) {
+		if ( k < tree.length ) {
+			i = fill(2 * k, i);
+			tree[k] = sorted[i];
+			rankAt[k] = i ++;
+			i = fill(2 * k + 1, i);
+		}
+		return i;
+	}
+
+	/**
+	 * @param k - index in tree
+	 * @return the element stored at the index
+	 */
+	@SuppressWarnings("unchecked")
+	private E at(int k) {
+		return (E) tree[k];
+	}
+
+	/**
+	 * Compares two elements in the order of this set
+	 * @param a - element to compare
+	 * @param b - element to compare with
+	 * @return a negative number, zero or a positive number as a is less than,
+	 * 	equal to or greater than b
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(E a, E b) {
+		if ( comparator != null )
+			return comparator.compare(a, b);
+		return ((Comparable<? super E>) a).compareTo(b);
+	}
+
+	/**
+	 * Finds the first element greater than (or equal to) a given element.
+	 * 	The loop descends to a missing child whatever the comparisons are;
+	 * 	the answer is the last Node where the search turned left, which is
+	 * 	recovered from the index by dropping the trailing right turns and
+	 * 	the final left turn
+	 * @param data - the value to match
+	 * @param inclusive - whether an element equal to data matches
+	 * @return the index in tree of the matching element, or 0 if there is none
+	 */
+	private int search(E data, boolean inclusive) {
+		if ( data == null )
+			throw new NullPointerException("Null data");
+
+		int bias = inclusive ? 0 : 1;
+		int n = tree.length;
+		int k = 1;
+		while ( k < n )
+			k = 2 * k + ( compare(at(k), data) < bias ? 1 : 0 );
+		return k >>> ( Integer.numberOfTrailingZeros(~k) + 1 );
+	}
+
+	/**
+	 * Returns the ascending position of the first element greater than (or
+	 * 	equal to) a given element
+	 * @param data - the value to match
+	 * @param inclusive - whether an element equal to data matches
+	 * @return the position, or size() if there is no such element
+	 */
+	private int rankOf(E data, boolean inclusive) {
+		int k = search(data, inclusive);
+		return ( k == 0 ) ? sorted.length : rankAt[k];
+	}
+
+	/**
+	 * @param index - a position in ascending order
+	 * @return the element at the position, or null if it is out of range
+	 */
+	@SuppressWarnings("unchecked")
+	private E elementAt(int index) {
+		return ( index < 0 || index >= sorted.length ) ? null : (E) sorted[index];
+	}
+
+	/**
+	 * Returns true if this set contains the specified element.
+	 * @param data - element to be checked for containment in this set
+	 * @return true if this set contains the specified element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public boolean contains(E data) {
+		int k = search(data, true);
+		return k != 0 && compare(at(k), data) == 0;
+	}
+
+	/**
+	 * Returns the least element in this set greater than or equal to
+	 * 	the given element, or null if there is no such element.
+	 * @param data - the value to match
+	 * @return the least element greater than or equal to data, or null if
+	 * 	there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E ceiling(E data) {
+		return at(search(data, true));
+	}
+
+	/**
+	 * Returns the least element in this set strictly greater than the given element,
+	 * 	or null if there is no such element
+	 * @param data - the value to match
+	 * @return the least element greater than data, or null if there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E higher(E data) {
+		return at(search(data, false));
+	}
+
+	/**
+	 * Returns the greatest element in this set less than or equal to
+	 * 	the given element, or null if there is no such element
+	 * @param data - the value to match
+	 * @return the greatest element less than or equal to data, or null if
+	 * 	there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E floor(E data) {
+		return elementAt(rankOf(data, false) - 1);
+	}
+
+	/**
+	 * Returns the greatest element in this set strictly less than the given element,
+	 * 	or null if there is no such element
+	 * @param data - the value to match
+	 * @return the greatest element less than data, or null if there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E lower(E data) {
+		return elementAt(rankOf(data, true) - 1);
+	}
+
+	/**
+	 * Returns the number of elements in this set strictly less than the given element
+	 * @param data - the value to match
+	 * @return the number of elements less than data
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public int rank(E data) {
+		return rankOf(data, true);
+	}
+
+	/**
+	 * Returns the element at the specified position in this set
+	 * @param index - index of the element to return
+	 * @return the element at the specified position in this set
+	 * @throw IndexOutOfBoundsException - if the index is out of range (index < 0 || index >= size())
+	 */
+	public E get(int index) {
+		if ( index < 0 || index >= sorted.length )
+			throw new IndexOutOfBoundsException("Index out of bound");
+		return elementAt(index);
+	}
+
+	/**
+	 * Returns the number of elements in this set
+	 * @return the number of elements in this set
+	 */
+	public int size() {
+		return sorted.length;
+	}
+
+	/**
+	 * Returns true if this set contains no elements
+	 * @return true if this set contains no elements
+	 */
+	public boolean isEmpty() {
+		return sorted.length == 0;
+	}
+
+	/**
+	 * Returns the first (lowest) element in this set
+	 * @return the first (lowest) element in this set
+	 * @throw NoSuchElementException - if this set is empty
+	 */
+	public E first() {
+		if ( sorted.length == 0 )
+			throw new NoSuchElementException("Empty tree");
+		return elementAt(0);
+	}
+
+	/**
+	 * Returns the last (highest) element in this set
+	 * @return the last (highest) element in this set
+	 * @throw NoSuchElementException - if this set is empty
+	 */
+	public E last() {
+		if ( sorted.length == 0 )
+			throw new NoSuchElementException("Empty tree");
+		return elementAt(sorted.length - 1);
+	}
+
+	/**
+	 * Returns the number of elements ranging from fromElement, inclusive,
+	 * 	to toElement, inclusive
+	 * @param fromElement - low endpoint (inclusive) of the range
+	 * @param toElement - high endpoint (inclusive) of the range
+	 * @return the number of elements in this set within the range
+	 * @throw NullPointerException - if fromElement or toElement is null
+	 * @throw IllegalArgumentException - if fromElement is greater than toElement
+	 */
+	public int countRange(E fromElement, E toElement) {
+		if ( fromElement == null || toElement == null )
+			throw new NullPointerException("Null element indicated");
+
+		if ( compare(fromElement, toElement) > 0 )
+			throw new IllegalArgumentException("fromElement > toElement");
+
+		return rankOf(toElement, false) - rankOf(fromElement, true);
+	}
+
+	/**
+	 * Returns a collection whose elements range from fromElement, inclusive,
+	 * 	to toElement, inclusive
+	 * @param fromElement - low endpoint (inclusive) of the returned collection
+	 * @param toElement - high endpoint (inclusive) of the returned collection
+	 * @return a collection containing a portion of this set whose elements range
+	 * 	from fromElement, inclusive, to toElement, inclusive
+	 * @throw NullPointerException - if fromElement or toElement is null
+	 * @throw IllegalArgumentException - if fromElement is greater than toElement
+	 */
+	public ArrayList<E> getRange(E fromElement, E toElement) {
+		if ( fromElement == null || toElement == null )
+			throw new NullPointerException("Null element indicated");
+
+		if ( compare(fromElement, toElement) > 0 )
+			throw new IllegalArgumentException("fromElement > toElement");
+
+		int from = rankOf(fromElement, true);
+		int to = rankOf(toElement, false);
+		ArrayList<E> list = new ArrayList<E>(to - from);
+		for ( int i = from; i < to; i ++ )
+			list.add(elementAt(i));
+		return list;
+	}
+
+	/**
+	 * Returns the comparator used to order the elements in this set
+	 * @return the comparator, or null if this set uses the natural ordering of its elements
+	 */
+	public Comparator<? super E> comparator() {
+		return comparator;
+	}
+
+	/**
+	 * Returns a mutable BST object with the elements of this set
+	 * @return a new tree containing the elements of this set
+	 */
+	@SuppressWarnings("unchecked")
+	public BST<E> thaw() {
+		return BST.fromSorted((List<E>) (List<?>) Arrays.asList(sorted), comparator);
+	}
+
+	/**
+	 * Returns an array containing all of the elements in this set in ascending order
+	 * @return an array, whose runtime component type is Object, containing all of the
+	 * 	elements in this set
+	 */
+	public Object[] toArray() {
+		return sorted.clone();
+	}
+
+	/**
+	 * Returns a string representation of this set
+	 * @return a string representation of this set
+	 */
+	@Override
+	public String toString() {
+		StringBuilder tree = new StringBuilder();
+		tree.append("[");
+		for ( int i = 0; i < sorted.length; i ++ ) {
+			if ( i > 0 )
+				tree.append(", ");
+			tree.append(String.valueOf(sorted[i]));
+		}
+		tree.append("]");
+		return tree.toString();
+	}
+
+	/**
+	 * Returns an iterator over the elements in this set in ascending order
+	 * @return an iterator over the elements in this set in ascending order
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			/**
+			 * position of the next element
+			 */
+			int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < sorted.length;
+			}
+
+			@Override
+			public E next() {
+				if ( next >= sorted.length ) throw new
+					NoSuchElementException("reached the end of this collection");
+				return elementAt(next ++);
+			}
+		};
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package datastructure;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This is an interface that converts the elements of a tree to and from
+ * 	bytes for BSTSnapshot. Each encoded element is stored with its length,
+ * 	so an encoding does not need to be self delimiting.
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public interface KeyCodec<E> {
+	/**
+	 * Encodes Integer elements as 4 big-endian bytes
+	 */
+	KeyCodec<Integer> INTEGER = new KeyCodec<Integer>() {
+		@Override
+		public int encodedLength(Integer key) {
+			return Integer.BYTES;
+		}
+
+		@Override
+		public void encode(Integer key, ByteBuffer out) {
+			out.putInt(key);
+		}
+
+		@Override
+		public Integer decode(ByteBuffer in, int length) {
+			return in.getInt();
+		}
+	};
+
+	/**
+	 * Encodes Long elements as 8 big-endian bytes
+	 */
+	KeyCodec<Long> LONG = new KeyCodec<Long>() {
+		@Override
+		public int encodedLength(Long key) {
+			return Long.BYTES;
+		}
+
+		@Override
+		public void encode(Long key, ByteBuffer out) {
+			out.putLong(key);
+		}
+
+		@Override
+		public Long decode(ByteBuffer in, int length) {
+			return in.getLong();
+		}
+	};
+
+	/**
+	 * Encodes String elements in UTF-8, as String.getBytes would, an unpaired
+	 * 	surrogate becoming '?'. Both the length and the bytes are computed from
+	 * 	the chars directly, so encoding allocates nothing
+	 */
+	KeyCodec<String> STRING = new KeyCodec<String>() {
+		@Override
+		public int encodedLength(String key) {
+			int length = key.length();
+			for ( int i = 0; i < key.length(); i ++ ) {
+				char c = key.charAt(i);
+				if ( c < 0x80 )
+					continue;
+				if ( c < 0x800 )
+					length += 1;
+				else if ( isPair(key, i) ) {
+					length += 2; //4 bytes for 2 chars
+					i ++;
+				}
+				else if ( !Character.isSurrogate(c) )
+					length += 2;
+			}
+			return length;
+		}
+
+		@Override
+		public void encode(String key, ByteBuffer out) {
+			for ( int i = 0; i < key.length(); i ++ ) {
+				char c = key.charAt(i);
+				if ( c < 0x80 )
+					out.put((byte) c);
+				else if ( c < 0x800 )
+					out.put((byte) ( 0xC0 | c >> 6 )).put((byte) ( 0x80 | c & 0x3F ));
+				else if ( isPair(key, i) ) {
+					int code = Character.toCodePoint(c, key.charAt(++ i));
+					out.put((byte) ( 0xF0 | code >> 18 )).put((byte) ( 0x80 | code >> 12 & 0x3F ))
+						.put((byte) ( 0x80 | code >> 6 & 0x3F )).put((byte) ( 0x80 | code & 0x3F ));
+				}
+				else if ( Character.isSurrogate(c) )
+					out.put((byte) '?');
+				else
+					out.put((byte) ( 0xE0 | c >> 12 )).put((byte) ( 0x80 | c >> 6 & 0x3F ))
+						.put((byte) ( 0x80 | c & 0x3F ));
+			}
+		}
+
+		/**
+		 * @param key - the string
+		 * @param i - index of a char of the string
+		 * @return true if the chars at i and i + 1 form a surrogate pair
+		 */
+		private boolean isPair(String key, int i) {
+			return Character.isHighSurrogate(key.charAt(i)) && i + 1 < key.length()
+				&& Character.isLowSurrogate(key.charAt(i + 1));
+		}
+
+		@Override
+		public String decode(ByteBuffer in, int length) {
+			byte[] bytes = new byte[length];
+			in.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	/**
+	 * Returns the number of bytes encode() writes for an element
+	 * @param key - element to encode
+	 * @return the number of bytes
+	 */
+	int encodedLength(E key);
+
+	/**
+	 * Writes an element at the position of a buffer, which has at least
+	 * 	encodedLength(key) bytes remaining
+	 * @param key - element to encode
+	 * @param out - buffer to write to
+	 */
+	void encode(E key, ByteBuffer out);
+
+	/**
+	 * Reads an element from the position of a buffer
+	 * @param in - buffer to read from
+	 * @param length - number of bytes the element was encoded with
+	 * @return the decoded element
+	 */
+	E decode(ByteBuffer in, int length);
+
+}
\ No newline at end of file
@@ -0,0 +1,707 @@
+package datastructure;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
+
+/**
+ * This is a BST class specialized for long keys, kept height balanced as
+ * 	an AVL tree. Keys are stored unboxed and compared with Long.compare
+ * - it has a default constructor LongBST();
+ * - it has a constructor LongBST(long[] collection);
+ *
+ * Navigation methods return an OptionalLong, empty where BST would return null,
+ * 	so that a miss costs no exception. Every Node also counts the Nodes of
+ * 	its subtree, for get(int) and rank.
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public class LongBST extends Object implements Iterable<Long> {
+	/**
+	 * This is a nested class that provides nodes for the LongBST
+	 */
+	private static class Node {
+		/**
+		 * Left and right child of the Node
+		 */
+		Node left, right;
+
+		/**
+		 * height of the Node
+		 */
+		int height = 1;
+
+		/**
+		 * number of Nodes in the subtree rooted at this Node
+		 */
+		int size = 1;
+
+		/**
+		 * data stored in the Node
+		 */
+		long data;
+
+		/**
+		 * Constructs a new Node that stores the data
+		 * @param data - data to store
+		 */
+		Node(long data) {
+			this.data = data;
+		}
+	}
+
+	/**
+	 * The first Node of the LongBST
+	 */
+	private Node root;
+
+	/**
+	 * The number of elements stored in this LongBST
+	 */
+	private int size;
+
+	/**
+	 * The number of structural modifications made to this LongBST
+	 */
+	private int modCount;
+
+	/**
+	 * Default constructor of a LongBST object
+	 */
+	public LongBST() {
+		root = null;
+		size = 0;
+	}
+
+	/**
+	 * Consructs a new LongBST object stores the elements in an array, in linear
+	 * 	time if the array is already sorted
+	 * @param collection - elements to store
+	 * @throw NullPointerException - if the specified array is null
+	 */
+	public LongBST(long[] collection) {
+		long[] array = collection.clone();
+		for ( int i = 1; i < array.length; i ++ ) {
+			if ( Long.compare(array[i - 1], array[i]) >= 0 ) {
+				Arrays.sort(array);
+				break;
+			}
+		}
+
+		int length = 0;
+		for ( int i = 0; i < array.length; i ++ ) {
+			if ( length == 0 || Long.compare(array[length - 1], array[i]) != 0 )
+				array[length ++] = array[i];
+		}
+		root = build(array, 0, length);
+		size = length;
+	}
+
+	/**
+	 * Builds a perfectly balanced subtree from a range of a sorted array
+	 * @param sorted - distinct keys in ascending order
+	 * @param from - first index of the range, inclusive
+	 * @param to - last index of the range, exclusive
+	 * @return root of the subtree, or null if the range is empty
+	 */
+	private Node build(long[] sorted, int from, int to) {
+		if ( from >= to )
+			return null;
+
+		int mid = ( from + to ) >>> 1;
+		Node node = new Node(sorted[mid]);
+		node.left = build(sorted, from, mid);
+		node.right = build(sorted, mid + 1, to);
+		updateHeight(node);
+		return node;
+	}
+
+	/**
+	 * Returns the height of this tree. The height of a leaf is 1.
+	 * @return the height of this tree or zero if the tree is empty
+	 */
+	public int height() {
+		return ( root == null ) ? 0 : root.height;
+	}
+
+	/**
+	 * Returns the height of a possibly empty subtree
+	 * @param node - root of the subtree
+	 * @return the height of the subtree or zero if it is empty
+	 */
+	private static int heightOf(Node node) {
+		return ( node == null ) ? 0 : node.height;
+	}
+
+	/**
+	 * Returns the number of Nodes in a possibly empty subtree
+	 * @param node - root of the subtree
+	 * @return the size of the subtree or zero if it is empty
+	 */
+	private static int sizeOf(Node node) {
+		return ( node == null ) ? 0 : node.size;
+	}
+
+	/**
+	 * updates the height and the subtree size of a given Node
+	 * @param node - Node to be updated
+	 */
+	private static void updateHeight(Node node) {
+		node.height = Math.max(heightOf(node.left), heightOf(node.right)) + 1;
+		node.size = sizeOf(node.left) + sizeOf(node.right) + 1;
+	}
+
+	/**
+	 * Rotates a subtree to the right around its root
+	 * @param node - root of the subtree, must have a left child
+	 * @return the new root of the subtree
+	 */
+	private static Node rotateRight(Node node) {
+		Node pivot = node.left;
+		node.left = pivot.right;
+		pivot.right = node;
+		updateHeight(node);
+		updateHeight(pivot);
+		return pivot;
+	}
+
+	/**
+	 * Rotates a subtree to the left around its root
+	 * @param node - root of the subtree, must have a right child
+	 * @return the new root of the subtree
+	 */
+	private static Node rotateLeft(Node node) {
+		Node pivot = node.right;
+		node.right = pivot.left;
+		pivot.left = node;
+		updateHeight(node);
+		updateHeight(pivot);
+		return pivot;
+	}
+
+	/**
+	 * Updates the height of a Node whose children are already balanced and
+	 * 	restores the AVL property with a single or double rotation
+	 * @param node - root of the subtree to rebalance
+	 * @return the new root of the subtree
+	 */
+	private static Node balance(Node node) {
+		updateHeight(node);
+		int diff = heightOf(node.left) - heightOf(node.right);
+
+		if ( diff > 1 ) {
+			if ( heightOf(node.left.left) < heightOf(node.left.right) )
+				node.left = rotateLeft(node.left);
+			return rotateRight(node);
+		}
+		if ( diff < -1 ) {
+			if ( heightOf(node.right.right) < heightOf(node.right.left) )
+				node.right = rotateRight(node.right);
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Rebalances the Nodes of a path bottom-up after an insertion or deletion
+	 * 	below it, relinking each rebalanced subtree into its parent
+	 * @param path - Nodes from the root downwards
+	 * @param depth - number of Nodes in the path
+	 */
+	private void rebalancePath(Node[] path, int depth) {
+		for ( int i = depth - 1; i >= 0; i -- ) {
+			Node node = path[i];
+			Node balanced = balance(node);
+			if ( i == 0 )
+				root = balanced;
+			else if ( path[i - 1].left == node )
+				path[i - 1].left = balanced;
+			else
+				path[i - 1].right = balanced;
+		}
+	}
+
+	/**
+	 * Adds the specified key to this set if it is not already present
+	 * @param data - key to be added to this set
+	 * @return true if this set did not already contain the specified key
+	 */
+	public boolean add(long data) {
+		if ( root == null ) {
+			root = new Node(data);
+			size = 1;
+			modCount ++;
+			return true;
+		}
+
+		Node[] path = new Node[root.height];
+		int depth = 0;
+		Node current = root;
+		while ( true ) {
+			int comp = Long.compare(data, current.data);
+			if ( comp == 0 )
+				return false;
+
+			path[depth ++] = current;
+			if ( comp < 0 ) {
+				if ( current.left == null ) {
+					current.left = new Node(data);
+					break;
+				}
+				current = current.left;
+			}
+			else {
+				if ( current.right == null ) {
+					current.right = new Node(data);
+					break;
+				}
+				current = current.right;
+			}
+		}
+
+		size ++;
+		modCount ++;
+		rebalancePath(path, depth);
+		return true;
+	}
+
+	/**
+	 * Adds all of the keys in the specified array to this tree
+	 * @param collection - keys to be added to this set
+	 * @return true if this set changed as a result of the call
+	 * @throw NullPointerException - if the specified array is null
+	 */
+	public boolean addAll(long[] collection) {
+		int originalSize = size;
+		for ( long data : collection )
+			add(data);
+		return ( size > originalSize );
+	}
+
+	/**
+	 * Removes the specified key from this tree if it is present
+	 * @param data - key to be removed from this set, if present
+	 * @return true if this set contained the specified key
+	 */
+	public boolean remove(long data) {
+		if ( root == null )
+			return false;
+
+		Node[] path = new Node[root.height];
+		int depth = 0;
+		Node current = root;
+		int comp;
+		while ( (comp = Long.compare(data, current.data)) != 0 ) {
+			path[depth ++] = current;
+			current = ( comp < 0 ) ? current.left : current.right;
+			if ( current == null )
+				return false;
+		}
+
+		//if the node has 2 children, replace its data with the left largest
+		//and unlink the Node that held the left largest instead
+		Node victim = current;
+		if ( current.left != null && current.right != null ) {
+			path[depth ++] = current;
+			victim = current.left;
+			while ( victim.right != null ) {
+				path[depth ++] = victim;
+				victim = victim.right;
+			}
+			current.data = victim.data;
+		}
+
+		Node replacement = ( victim.left != null ) ? victim.left : victim.right;
+		if ( depth == 0 )
+			root = replacement;
+		else if ( path[depth - 1].left == victim )
+			path[depth - 1].left = replacement;
+		else
+			path[depth - 1].right = replacement;
+
+		size --;
+		modCount ++;
+		rebalancePath(path, depth);
+		return true;
+	}
+
+	/**
+	 * Removes all of the keys from this set.
+	 */
+	public void clear() {
+		root = null;
+		size = 0;
+		modCount ++;
+	}
+
+	/**
+	 * Returns true if this set contains the specified key.
+	 * @param data - key to be checked for containment in this set
+	 * @return true if this set contains the specified key
+	 */
+	public boolean contains(long data) {
+		Node current = root;
+		while ( current != null ) {
+			int comp = Long.compare(data, current.data);
+			if ( comp == 0 )
+				return true;
+			current = ( comp < 0 ) ? current.left : current.right;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of keys in this tree
+	 * @return the number of keys in this tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns true if this set contains no keys
+	 * @return true if this set contains no keys
+	 */
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+	 * Returns the key at the specified position in this tree
+	 * @param index - index of the key to return
+	 * @return the key at the specified position in this tree
+	 * @throw IndexOutOfBoundsException - if the index is out of range (index < 0 || index >= size())
+	 */
+	public long get(int index) {
+		if ( index < 0 || index > size - 1 )
+			throw new IndexOutOfBoundsException("Index out of bound");
+
+		Node current = root;
+		while ( true ) {
+			int leftSize = sizeOf(current.left);
+			if ( index < leftSize )
+				current = current.left;
+			else if ( index > leftSize ) {
+				index -= leftSize + 1;
+				current = current.right;
+			}
+			else
+				return current.data;
+		}
+	}
+
+	/**
+	 * Returns the number of keys in this tree strictly less than the given key,
+	 * 	which is also the index the key has, or would have, in this tree
+	 * @param data - the value to match
+	 * @return the number of keys less than data
+	 */
+	public int rank(long data) {
+		Node current = root;
+		int count = 0;
+		while ( current != null ) {
+			int comp = Long.compare(data, current.data);
+			if ( comp <= 0 )
+				current = current.left;
+			else {
+				count += sizeOf(current.left) + 1;
+				current = current.right;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the first (lowest) key currently in this tree
+	 * @return the first (lowest) key currently in this tree
+	 * @throw NoSuchElementException - if this set is empty
+	 */
+	public long first() {
+		if ( root == null )
+			throw new NoSuchElementException("Empty tree");
+
+		Node current = root;
+		while ( current.left != null )
+			current = current.left;
+		return current.data;
+	}
+
+	/**
+	 * Returns the last (highest) key currently in this tree
+	 * @return the last (highest) key currently in this tree
+	 * @throw NoSuchElementException - if this set is empty
+	 */
+	public long last() {
+		if ( root == null )
+			throw new NoSuchElementException("Empty tree");
+
+		Node current = root;
+		while ( current.right != null )
+			current = current.right;
+		return current.data;
+	}
+
+	/**
+	 * Finds the Node holding the nearest key to a given key
+	 * @param data - the value to match
+	 * @param above - whether to look above (true) or below (false) data
+	 * @param inclusive - whether data itself matches
+	 * @return the matching Node, or null if there is none
+	 */
+	private Node near(long data, boolean above, boolean inclusive) {
+		Node current = root;
+		Node best = null;
+		while ( current != null ) {
+			int comp = Long.compare(data, current.data);
+			if ( comp == 0 && inclusive )
+				return current;
+			if ( above ? comp < 0 : comp > 0 ) {
+				best = current;
+				current = above ? current.left : current.right;
+			}
+			else
+				current = above ? current.right : current.left;
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the key held by a Node found by a navigation method
+	 * @param node - the Node found, or null
+	 * @return the key held by the Node, or an empty OptionalLong if the Node is null
+	 */
+	private static OptionalLong keyOf(Node node) {
+		return ( node == null ) ? OptionalLong.empty() : OptionalLong.of(node.data);
+	}
+
+	/**
+	 * Returns the least key in this tree greater than or equal to the given key
+	 * @param data - the value to match
+	 * @return the least key greater than or equal to data, or an empty OptionalLong if there is no such key
+	 */
+	public OptionalLong ceiling(long data) {
+		return keyOf(near(data, true, true));
+	}
+
+	/**
+	 * Returns the greatest key in this tree less than or equal to the given key
+	 * @param data - the value to match
+	 * @return the greatest key less than or equal to data, or an empty OptionalLong if there is no such key
+	 */
+	public OptionalLong floor(long data) {
+		return keyOf(near(data, false, true));
+	}
+
+	/**
+	 * Returns the least key in this tree strictly greater than the given key
+	 * @param data - the value to match
+	 * @return the least key greater than data, or an empty OptionalLong if there is no such key
+	 */
+	public OptionalLong higher(long data) {
+		return keyOf(near(data, true, false));
+	}
+
+	/**
+	 * Returns the greatest key in this tree strictly less than the given key
+	 * @param data - the value to match
+	 * @return the greatest key less than data, or an empty OptionalLong if there is no such key
+	 */
+	public OptionalLong lower(long data) {
+		return keyOf(near(data, false, false));
+	}
+
+	/**
+	 * Returns the keys ranging from fromElement, inclusive, to toElement, inclusive
+	 * @param fromElement - low endpoint (inclusive) of the returned keys
+	 * @param toElement - high endpoint (inclusive) of the returned keys
+	 * @return the keys of this tree within the range, in ascending order
+	 * @throw IllegalArgumentException - if fromElement is greater than toElement
+	 */
+	public long[] getRange(long fromElement, long toElement) {
+		if ( Long.compare(fromElement, toElement) > 0 )
+			throw new IllegalArgumentException("fromElement > toElement");
+
+		long[] range = new long[16];
+		int length = 0;
+		Iter iter = new Iter(fromElement, true);
+		while ( iter.hasNext() ) {
+			long data = iter.nextLong();
+			if ( Long.compare(data, toElement) > 0 )
+				break;
+			if ( length == range.length )
+				range = Arrays.copyOf(range, length * 2);
+			range[length ++] = data;
+		}
+		return Arrays.copyOf(range, length);
+	}
+
+	/**
+	 * Returns an array containing all of the keys in this tree in ascending order
+	 * @return an array containing all of the keys in this tree
+	 */
+	public long[] toArray() {
+		long[] array = new long[size];
+		Iter iter = new Iter();
+		for ( int i = 0; i < size; i ++ )
+			array[i] = iter.nextLong();
+		return array;
+	}
+
+	/**
+	 * Returns a string representation of this tree
+	 * @return a string representation of this collection
+	 */
+	@Override
+	public String toString() {
+		StringBuilder tree = new StringBuilder();
+		tree.append("[");
+		Iter iter = new Iter();
+		while ( iter.hasNext() ) {
+			tree.append(iter.nextLong());
+			if ( iter.hasNext() )
+				tree.append(", ");
+		}
+		tree.append("]");
+		return tree.toString();
+	}
+
+	/**
+	 * An inorder iterator of a LongBST object. It keeps only the path to the
+	 * 	next key, so it holds O(height) Nodes and does its work lazily
+	 */
+	class Iter implements PrimitiveIterator.OfLong {
+		/**
+		 * Nodes whose data and right subtree are still to be visited
+		 */
+		ArrayDeque<Node> stack;
+
+		/**
+		 * whether next() has been called since the last remove()
+		 */
+		boolean canRemove;
+
+		/**
+		 * the key returned by the last call to next()
+		 */
+		long lastReturned;
+
+		/**
+		 * the modCount this iterator expects the tree to have
+		 */
+		int expectedModCount;
+
+		/**
+		 * default constructor
+		 */
+		public Iter() {
+			stack = new ArrayDeque<Node>();
+			expectedModCount = modCount;
+			pushLeft(root);
+		}
+
+		/**
+		 * constructs an iterator starting at the first key at or after a bound
+		 * @param from - the bound
+		 * @param inclusive - whether a key equal to the bound is returned
+		 */
+		Iter(long from, boolean inclusive) {
+			stack = new ArrayDeque<Node>();
+			expectedModCount = modCount;
+			seek(from, inclusive);
+		}
+
+		/**
+		 * pushes the path to the keys after a bound
+		 * @param from - the bound
+		 * @param inclusive - whether a key equal to the bound is included
+		 */
+		private void seek(long from, boolean inclusive) {
+			Node current = root;
+			while ( current != null ) {
+				int comp = Long.compare(from, current.data);
+				if ( comp < 0 || ( comp == 0 && inclusive ) ) {
+					stack.push(current);
+					current = current.left;
+				}
+				else
+					current = current.right;
+			}
+		}
+
+		/**
+		 * pushes a Node and all of its left descendants onto the stack
+		 * @param node - the first Node to push
+		 */
+		private void pushLeft(Node node) {
+			while ( node != null ) {
+				stack.push(node);
+				node = node.left;
+			}
+		}
+
+		/**
+		 * get the next key
+		 * @return the next key
+		 * @throw NoSuchElementException if there are no more keys
+		 * @throw ConcurrentModificationException if the tree was modified
+		 * 	other than through this iterator
+		 */
+		@Override
+		public long nextLong() {
+			if ( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+			if ( stack.isEmpty() ) throw new
+				NoSuchElementException("reached the end of this collection");
+			Node node = stack.pop();
+			pushLeft(node.right);
+			lastReturned = node.data;
+			canRemove = true;
+			return lastReturned;
+		}
+
+		/**
+		 * checks if the tree has a next key
+		 * @return true if has next
+		 */
+		@Override
+		public boolean hasNext() {
+			return !stack.isEmpty();
+		}
+
+		/**
+		 * removes the last key returned by next() from the tree
+		 * @throw IllegalStateException if next() has not been called, or remove()
+		 * 	has already been called after the last call to next()
+		 * @throw ConcurrentModificationException if the tree was modified
+		 * 	other than through this iterator
+		 */
+		@Override
+		public void remove() {
+			if ( !canRemove )
+				throw new IllegalStateException("next() has not been called");
+			if ( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+
+			LongBST.this.remove(lastReturned);
+			expectedModCount = modCount;
+			stack.clear();
+			seek(lastReturned, false);
+			canRemove = false;
+		}
+	}
+
+	/**
+	 * Returns an iterator over the keys in this tree in ascending order
+	 * @return an iterator over the keys in this set in ascending order
+	 */
+	@Override
+	public PrimitiveIterator.OfLong iterator() {
+		return new Iter();
+	}
+
+}
\ No newline at end of file
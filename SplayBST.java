@@ -0,0 +1,864 @@
+package datastructure;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+/**
+ * This is a generic self-adjusting BST class. Every access splays the element
+ * 	it reaches to the root with top-down splaying, so recently and frequently
+ * 	used elements stay a few comparisons from the root; any sequence of
+ * 	operations costs amortized O(log n) each. Every Node also counts the Nodes
+ * 	of its subtree, so elements can be found by their index. Lookups therefore restructure
+ * 	the tree, and a SplayBST must not be read by several threads at once even
+ * 	when none of them modifies it.
+ * - it has a default constructor SplayBST<E>();
+ * - it has a constructor SplayBST<E>(Comparator<E> comparator);
+ * - it has a constructor SplayBST<E>(Collection<E> collection);
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public class SplayBST<E> extends AbstractSet<E> {
+	/**
+	 * This is a nested class that provides the nodes of the SplayBST
+	 *
+	 * @author Evelyn Wu
+	 *
+	 */
+	private static final class Node<E> extends Object {
+		/**
+		 * Left and right child of the Node
+		 */
+		Node<E> left, right;
+
+		/**
+		 * number of Nodes in the subtree rooted at this Node
+		 */
+		int size = 1;
+
+		/**
+		 * data stored in the Node
+		 */
+		E data;
+
+		/**
+		 * Constructs a new Node that stores the data
+		 * @param data - data to store
+		 */
+		Node(E data) {
+			this.data = data;
+		}
+	}
+
+	/**
+	 * The first Node of the tree
+	 */
+	private Node<E> root;
+
+	/**
+	 * The number of elements in the tree
+	 */
+	private int size;
+
+	/**
+	 * The order of the elements, or null for their natural ordering
+	 */
+	private final Comparator<? super E> comparator;
+
+	/**
+	 * The number of additions and removals made to this tree, used by the
+	 * 	iterators to fail fast on concurrent modification
+	 */
+	private int modCount;
+
+	/**
+	 * The number of splays made to this tree, including those of lookups, used
+	 * 	by the iterators to notice that their path has been restructured
+	 */
+	private int splayCount;
+
+	/**
+	 * Assembly header reused by every splay
+	 */
+	private final Node<E> header = new Node<E>(null);
+
+	/**
+	 * Default constructor of a SplayBST object, ordering its elements by their
+	 * 	natural ordering
+	 */
+	public SplayBST() {
+		this((Comparator<? super E>) null);
+	}
+
+	/**
+	 * Constructs an empty SplayBST object ordered by a comparator
+	 * @param comparator - the order of the elements, or null for their natural ordering
+	 */
+	public SplayBST(Comparator<? super E> comparator) {
+		this.comparator = comparator;
+	}
+
+	/**
+	 * Constructs a SplayBST object with the elements of a collection, ordered
+	 * 	like the collection if it is a SortedSet, and otherwise by their natural
+	 * 	ordering
+	 * @param collection - the elements to add
+	 * @throw NullPointerException - if the collection or any of its elements is null
+	 */
+	public SplayBST(Collection<? extends E> collection) {
+		this(comparatorOf(collection));
+		addAll(collection);
+	}
+
+	/**
+	 * Returns the order of a collection a new tree is built from
+	 * @param collection - the elements of the new tree
+	 * @return the comparator of the collection if it is a SortedSet, or null
+	 * @throw NullPointerException - if the collection is null
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> Comparator<? super E> comparatorOf(Collection<? extends E> collection) {
+		if ( collection == null )
+			throw new NullPointerException("Null collection");
+
+		if ( collection instanceof SortedSet )
+			return (Comparator<? super E>) ( (SortedSet<? extends E>) collection ).comparator();
+		return null;
+	}
+
+	/**
+	 * Compares two elements in the order of this tree
+	 * @param a - element to compare
+	 * @param b - element to compare with
+	 * @return a negative number, zero or a positive number as a is less than,
+	 * 	equal to or greater than b
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(E a, E b) {
+		if ( comparator != null )
+			return comparator.compare(a, b);
+		return ((Comparable<? super E>) a).compareTo(b);
+	}
+
+	/**
+	 * Returns the number of Nodes in a possibly empty subtree
+	 * @param node - root of the subtree
+	 * @return the size of the subtree or zero if it is empty
+	 */
+	private static int sizeOf(Node<?> node) {
+		return ( node == null ) ? 0 : node.size;
+	}
+
+	/**
+	 * Splays the tree around an element with top-down splaying: afterwards the
+	 * 	root holds the element if it is present, and otherwise the last Node
+	 * 	reached while searching for it, which is its predecessor or successor
+	 * @param data - the element to splay around
+	 * @throw NullPointerException - if the element is null
+	 * @throw ClassCastException - if the element cannot be compared with the elements in this tree
+	 */
+	private void splay(E data) {
+		if ( data == null )
+			throw new NullPointerException("Null data");
+		if ( root == null )
+			return;
+
+		splayCount ++;
+		Node<E> left = header, right = header;
+		header.left = header.right = null;
+		int leftSize = 0, rightSize = 0;
+		Node<E> current = root;
+		while ( true ) {
+			int comp = compare(data, current.data);
+			if ( comp < 0 ) {
+				if ( current.left == null )
+					break;
+				if ( compare(data, current.left.data) < 0 ) {
+					//zig-zig: rotate right before linking
+					Node<E> pivot = current.left;
+					current.left = pivot.right;
+					pivot.right = current;
+					current.size = sizeOf(current.left) + sizeOf(current.right) + 1;
+					current = pivot;
+					if ( current.left == null )
+						break;
+				}
+				right.left = current;
+				right = current;
+				current = current.left;
+				rightSize += sizeOf(right.right) + 1;
+			}
+			else if ( comp > 0 ) {
+				if ( current.right == null )
+					break;
+				if ( compare(data, current.right.data) > 0 ) {
+					//zag-zag: rotate left before linking
+					Node<E> pivot = current.right;
+					current.right = pivot.left;
+					pivot.left = current;
+					current.size = sizeOf(current.left) + sizeOf(current.right) + 1;
+					current = pivot;
+					if ( current.right == null )
+						break;
+				}
+				left.right = current;
+				left = current;
+				current = current.right;
+				leftSize += sizeOf(left.left) + 1;
+			}
+			else
+				break;
+		}
+		leftSize += sizeOf(current.left);
+		rightSize += sizeOf(current.right);
+		current.size = leftSize + rightSize + 1;
+
+		//the Nodes linked into the side trees kept only part of their subtrees;
+		//down each side, every Node holds the rest of that side
+		left.right = right.left = null;
+		for ( Node<E> node = header.right; node != null; node = node.right ) {
+			node.size = leftSize;
+			leftSize -= sizeOf(node.left) + 1;
+		}
+		for ( Node<E> node = header.left; node != null; node = node.left ) {
+			node.size = rightSize;
+			rightSize -= sizeOf(node.right) + 1;
+		}
+
+		left.right = current.left;
+		right.left = current.right;
+		current.left = header.right;
+		current.right = header.left;
+		header.left = header.right = null;
+		root = current;
+	}
+
+	/**
+	 * Adds the specified element to this tree if it is not already present.
+	 * 	The element ends up at the root either way
+	 * @param data - element to be added to this tree
+	 * @return true if this tree did not already contain the specified element
+	 * @throw NullPointerException - if the specified element is null
+	 * @throw ClassCastException - if the element cannot be compared with the elements in this tree
+	 */
+	@Override
+	public boolean add(E data) {
+		if ( data == null )
+			throw new NullPointerException("Null data");
+
+		Node<E> node = new Node<E>(data);
+		if ( root == null ) {
+			compare(data, data); //type check, as a single element is never compared
+			root = node;
+		}
+		else {
+			splay(data);
+			int comp = compare(data, root.data);
+			if ( comp == 0 )
+				return false;
+			if ( comp < 0 ) {
+				node.left = root.left;
+				node.right = root;
+				root.left = null;
+			}
+			else {
+				node.right = root.right;
+				node.left = root;
+				root.right = null;
+			}
+			root.size = sizeOf(root.left) + sizeOf(root.right) + 1;
+			node.size = size + 1;
+			root = node;
+		}
+		size ++;
+		modCount ++;
+		return true;
+	}
+
+	/**
+	 * Removes the specified element from this tree if it is present
+	 * @param o - object to be removed from this tree, if present
+	 * @return true if this tree contained the specified element
+	 * @throw NullPointerException - if the specified element is null
+	 * @throw ClassCastException - if the element cannot be compared with the elements in this tree
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object o) {
+		E data = (E) o;
+		splay(data);
+		if ( root == null || compare(data, root.data) != 0 )
+			return false;
+
+		if ( root.left == null )
+			root = root.right;
+		else {
+			//every element of the left subtree is less, so splaying it brings its maximum up
+			Node<E> right = root.right;
+			root = root.left;
+			splay(data);
+			root.right = right;
+			root.size += sizeOf(right);
+		}
+		size --;
+		modCount ++;
+		return true;
+	}
+
+	/**
+	 * Returns true if this tree contains the specified element, which is
+	 * 	then splayed to the root
+	 * @param o - object to be checked for containment in this tree
+	 * @return true if this tree contains the specified element
+	 * @throw NullPointerException - if the specified element is null
+	 * @throw ClassCastException - if the element cannot be compared with the elements in this tree
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean contains(Object o) {
+		splay((E) o);
+		return root != null && compare((E) o, root.data) == 0;
+	}
+
+	/**
+	 * Returns the number of elements in this tree
+	 * @return the number of elements in this tree
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns true if this tree contains no elements
+	 * @return true if this tree contains no elements
+	 */
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+	 * Removes all of the elements from this tree
+	 */
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+		modCount ++;
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection to this tree. An
+	 * 	empty tree is built balanced from the sorted elements instead of by
+	 * 	splaying each of them in, which is linear if they are already sorted
+	 * @param collection - collection containing elements to be added to this tree
+	 * @return true if this tree changed as a result of the call
+	 * @throw NullPointerException - if the specified collection is null or if any
+	 * 	element of the collection is null
+	 * @throw ClassCastException - if the elements cannot be compared with each other
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean addAll(Collection<? extends E> collection) {
+		if ( collection == null )
+			throw new NullPointerException("Null collection");
+		if ( root != null || collection.size() < 2 )
+			return super.addAll(collection);
+
+		Object[] array = collection.toArray();
+		for ( Object data : array ) {
+			if ( data == null )
+				throw new NullPointerException("Null element in the collection");
+		}
+		Arrays.sort(array, (a, b) -> compare((E) a, (E) b));
+		int length = 0;
+		for ( Object data : array ) {
+			if ( length == 0 || compare((E) array[length - 1], (E) data) != 0 )
+				array[length ++] = data;
+		}
+		root = build(array, 0, length);
+		size = length;
+		modCount ++;
+		return length > 0;
+	}
+
+	/**
+	 * Builds a balanced subtree from a range of sorted, distinct elements
+	 * @param sorted - elements in ascending order
+	 * @param from - first index of the range, inclusive
+	 * @param to - last index of the range, exclusive
+	 * @return root of the subtree, or null if the range is empty
+	 */
+	@SuppressWarnings("unchecked")
+	private Node<E> build(Object[] sorted, int from, int to) {
+		if ( from >= to )
+			return null;
+
+		int mid = ( from + to ) >>> 1;
+		Node<E> node = new Node<E>((E) sorted[mid]);
+		node.left = build(sorted, from, mid);
+		node.right = build(sorted, mid + 1, to);
+		node.size = to - from;
+		return node;
+	}
+
+	/**
+	 * Finds the nearest element to a given one and splays it to the root
+	 * @param data - the value to match
+	 * @param above - whether to look above (true) or below (false) data
+	 * @param inclusive - whether data itself matches
+	 * @return the matching element, or null if there is none
+	 */
+	private E near(E data, boolean above, boolean inclusive) {
+		splay(data);
+		if ( root == null )
+			return null;
+
+		int comp = compare(root.data, data);
+		if ( ( comp == 0 && inclusive ) || ( comp != 0 && ( comp > 0 ) == above ) )
+			return root.data;
+
+		//the root is on the wrong side, so the match is the nearest element of its other subtree
+		Node<E> current = above ? root.right : root.left;
+		if ( current == null )
+			return null;
+		while ( ( above ? current.left : current.right ) != null )
+			current = above ? current.left : current.right;
+		splay(current.data);
+		return current.data;
+	}
+
+	/**
+	 * Returns the least element in this tree greater than or equal to the given element,
+	 * 	or null if there is no such element
+	 * @param data - the value to match
+	 * @return the least element greater than or equal to data, or null if there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E ceiling(E data) {
+		return near(data, true, true);
+	}
+
+	/**
+	 * Returns the greatest element in this tree less than or equal to the given element,
+	 * 	or null if there is no such element
+	 * @param data - the value to match
+	 * @return the greatest element less than or equal to data, or null if there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E floor(E data) {
+		return near(data, false, true);
+	}
+
+	/**
+	 * Returns the least element in this tree strictly greater than the given element,
+	 * 	or null if there is no such element
+	 * @param data - the value to match
+	 * @return the least element greater than data, or null if there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E higher(E data) {
+		return near(data, true, false);
+	}
+
+	/**
+	 * Returns the greatest element in this tree strictly less than the given element,
+	 * 	or null if there is no such element
+	 * @param data - the value to match
+	 * @return the greatest element less than data, or null if there is no such element
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public E lower(E data) {
+		return near(data, false, false);
+	}
+
+	/**
+	 * Returns the element at the specified position in this tree, which is
+	 * 	then splayed to the root
+	 * @param index - index of the element to return
+	 * @return the element at the specified position in this tree
+	 * @throw IndexOutOfBoundsException - if the index is out of range (index < 0 || index >= size())
+	 */
+	public E get(int index) {
+		if ( index < 0 || index > size - 1 )
+			throw new IndexOutOfBoundsException("Index out of bound");
+
+		Node<E> current = root;
+		while ( true ) {
+			int leftSize = sizeOf(current.left);
+			if ( index < leftSize )
+				current = current.left;
+			else if ( index > leftSize ) {
+				index -= leftSize + 1;
+				current = current.right;
+			}
+			else
+				break;
+		}
+		splay(current.data);
+		return current.data;
+	}
+
+	/**
+	 * Returns the number of elements in this tree strictly less than the given element,
+	 * 	which is also the index the element has, or would have, in this tree
+	 * @param data - the value to match
+	 * @return the number of elements less than data
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public int rank(E data) {
+		return rank(data, false);
+	}
+
+	/**
+	 * Counts the elements less than, or less than or equal to, the given element.
+	 * 	After splaying, those are the left subtree of the root and maybe the root
+	 * @param data - the value to match
+	 * @param inclusive - whether an element equal to data is counted
+	 * @return the number of matching elements
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	private int rank(E data, boolean inclusive) {
+		splay(data);
+		if ( root == null )
+			return 0;
+
+		int comp = compare(root.data, data);
+		return sizeOf(root.left) + ( ( comp < 0 || ( comp == 0 && inclusive ) ) ? 1 : 0 );
+	}
+
+	/**
+	 * Returns the number of elements ranging from fromElement, inclusive,
+	 * 	to toElement, inclusive
+	 * @param fromElement - low endpoint (inclusive) of the range
+	 * @param toElement - high endpoint (inclusive) of the range
+	 * @return the number of elements in this tree within the range
+	 * @throw NullPointerException - if fromElement or toElement is null
+	 * @throw IllegalArgumentException - if fromElement is greater than toElement
+	 */
+	public int countRange(E fromElement, E toElement) {
+		if ( fromElement == null || toElement == null )
+			throw new NullPointerException("Null element indicated");
+
+		if ( compare(fromElement, toElement) > 0 )
+			throw new IllegalArgumentException("fromElement > toElement");
+
+		return rank(toElement, true) - rank(fromElement, false);
+	}
+
+	/**
+	 * Returns a collection whose elements range from fromElement, inclusive,
+	 * 	to toElement, inclusive. fromElement is splayed first, so the range
+	 * 	starts at the root or in its right subtree
+	 * @param fromElement - low endpoint (inclusive) of the returned collection
+	 * @param toElement - high endpoint (inclusive) of the returned collection
+	 * @return a collection containing a portion of this tree whose elements range
+	 * 	from fromElement, inclusive, to toElement, inclusive
+	 * @throw NullPointerException - if fromElement or toElement is null
+	 * @throw IllegalArgumentException - if fromElement is greater than toElement
+	 */
+	public ArrayList<E> getRange(E fromElement, E toElement) {
+		if ( fromElement == null || toElement == null )
+			throw new NullPointerException("Null element indicated");
+
+		if ( compare(fromElement, toElement) > 0 )
+			throw new IllegalArgumentException("fromElement > toElement");
+
+		ArrayList<E> list = new ArrayList<E>();
+		splay(fromElement);
+		if ( root == null )
+			return list;
+
+		ArrayDeque<Node<E>> stack = new ArrayDeque<Node<E>>();
+		if ( compare(root.data, fromElement) >= 0 )
+			stack.push(root);
+		else {
+			for ( Node<E> current = root.right; current != null; current = current.left )
+				stack.push(current);
+		}
+		while ( !stack.isEmpty() ) {
+			Node<E> node = stack.pop();
+			if ( compare(node.data, toElement) > 0 )
+				break;
+			list.add(node.data);
+			for ( Node<E> current = node.right; current != null; current = current.left )
+				stack.push(current);
+		}
+		return list;
+	}
+
+	/**
+	 * Finds an end of the tree and splays it to the root
+	 * @param last - whether to find the last (true) or the first (false) element
+	 * @return the element
+	 * @throw NoSuchElementException - if this tree is empty
+	 */
+	private E end(boolean last) {
+		if ( root == null )
+			throw new NoSuchElementException("Empty tree");
+
+		Node<E> current = root;
+		while ( ( last ? current.right : current.left ) != null )
+			current = last ? current.right : current.left;
+		splay(current.data);
+		return current.data;
+	}
+
+	/**
+	 * Returns the first (lowest) element currently in this tree
+	 * @return the first (lowest) element currently in this tree
+	 * @throw NoSuchElementException - if this tree is empty
+	 */
+	public E first() {
+		return end(false);
+	}
+
+	/**
+	 * Returns the last (highest) element currently in this tree
+	 * @return the last (highest) element currently in this tree
+	 * @throw NoSuchElementException - if this tree is empty
+	 */
+	public E last() {
+		return end(true);
+	}
+
+	/**
+	 * Retrieves and removes the first (lowest) element, or returns null if this tree is empty
+	 * @return the first element, or null if this tree is empty
+	 */
+	public E pollFirst() {
+		if ( root == null )
+			return null;
+
+		E data = end(false);
+		root = root.right;
+		size --;
+		modCount ++;
+		return data;
+	}
+
+	/**
+	 * Retrieves and removes the last (highest) element, or returns null if this tree is empty
+	 * @return the last element, or null if this tree is empty
+	 */
+	public E pollLast() {
+		if ( root == null )
+			return null;
+
+		E data = end(true);
+		root = root.left;
+		size --;
+		modCount ++;
+		return data;
+	}
+
+	/**
+	 * Returns the comparator used to order the elements in this tree
+	 * @return the comparator, or null if this tree uses the natural ordering of its elements
+	 */
+	public Comparator<? super E> comparator() {
+		return comparator;
+	}
+
+	/**
+	 * Returns the number of comparisons a search for an element would make
+	 * 	right now, without splaying. Useful to observe how close frequently
+	 * 	accessed elements have moved to the root
+	 * @param data - the element
+	 * @return the depth of its Node, counting the root as 1, or 0 if absent
+	 * @throw NullPointerException - if the specified element is null
+	 */
+	public int depthOf(E data) {
+		if ( data == null )
+			throw new NullPointerException("Null data");
+
+		Node<E> current = root;
+		for ( int depth = 1; current != null; depth ++ ) {
+			int comp = compare(data, current.data);
+			if ( comp == 0 )
+				return depth;
+			current = ( comp < 0 ) ? current.left : current.right;
+		}
+		return 0;
+	}
+
+	/**
+	 * Produces tree like string representation of this tree, in the format of
+	 * 	BST.toStringTreeFormat(): one line per Node in preorder, indented by its
+	 * 	depth, with null for missing children. It does not splay, and walks the
+	 * 	tree with an explicit stack since a splay tree may be as deep as it is large
+	 * @return string containing tree-like representation of this tree
+	 */
+	@SuppressWarnings("unchecked")
+	public String toStringTreeFormat() {
+		if ( root == null )
+			return "null";
+
+		StringBuilder tree = new StringBuilder();
+		StringBuilder indent = new StringBuilder();
+		Node<E>[] nodes = (Node<E>[]) new Node<?>[16];
+		int[] levels = new int[nodes.length];
+		int depth = 0;
+		nodes[depth ++] = root;
+
+		while ( depth > 0 ) {
+			Node<E> node = nodes[-- depth];
+			int level = levels[depth];
+			tree.append('\n');
+			if ( level > 0 ) {
+				while ( indent.length() < 3 * ( level - 1 ) )
+					indent.append("   ");
+				tree.append(indent, 0, 3 * ( level - 1 )).append("|--");
+			}
+
+			if ( node == null ) {
+				tree.append("null");
+				continue;
+			}
+			tree.append(String.valueOf(node.data));
+
+			if ( depth + 2 > nodes.length ) {
+				nodes = Arrays.copyOf(nodes, nodes.length * 2);
+				levels = Arrays.copyOf(levels, nodes.length);
+			}
+			nodes[depth] = node.right;
+			levels[depth ++] = level + 1;
+			nodes[depth] = node.left;
+			levels[depth ++] = level + 1;
+		}
+		return tree.toString();
+	}
+
+	/**
+	 * An in-order iterator over the tree. Iteration itself does not splay, but
+	 * 	lookups made while iterating do; the iterator then finds its place again
+	 * 	from the last element it returned
+	 */
+	class Iter implements Iterator<E> {
+		/**
+		 * whether elements are returned in descending order
+		 */
+		final boolean descending;
+
+		/**
+		 * Nodes whose data and far subtree are still to be visited
+		 */
+		Node<E>[] stack;
+		int depth;
+
+		/**
+		 * the last element returned by next(), or null
+		 */
+		E lastReturned;
+
+		/**
+		 * the element after which the iterator resumes, or null at the start
+		 */
+		E resumeAfter;
+
+		/**
+		 * the modCount and splayCount the stack was built against
+		 */
+		int expectedModCount, expectedSplayCount;
+
+		/**
+		 * constructs an iterator at the first element
+		 * @param descending - whether to iterate in descending order
+		 */
+		Iter(boolean descending) {
+			this.descending = descending;
+			expectedModCount = modCount;
+			seek();
+		}
+
+		/**
+		 * pushes the path to the elements after resumeAfter, without splaying
+		 */
+		@SuppressWarnings("unchecked")
+		private void seek() {
+			expectedSplayCount = splayCount;
+			stack = (Node<E>[]) new Node<?>[16];
+			depth = 0;
+			Node<E> current = root;
+			while ( current != null ) {
+				int comp = ( resumeAfter == null ) ? -1 : compare(resumeAfter, current.data);
+				if ( descending && resumeAfter != null )
+					comp = -comp;
+				if ( comp < 0 ) {
+					if ( depth == stack.length )
+						stack = Arrays.copyOf(stack, depth * 2);
+					stack[depth ++] = current;
+					current = descending ? current.right : current.left;
+				}
+				else
+					current = descending ? current.left : current.right;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if ( splayCount != expectedSplayCount && modCount == expectedModCount )
+				seek();
+			return depth > 0;
+		}
+
+		@Override
+		public E next() {
+			if ( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+			if ( !hasNext() ) throw new
+				NoSuchElementException("reached the end of this collection");
+
+			Node<E> node = stack[-- depth];
+			for ( Node<E> current = descending ? node.left : node.right; current != null;
+					current = descending ? current.right : current.left ) {
+				if ( depth == stack.length )
+					stack = Arrays.copyOf(stack, depth * 2);
+				stack[depth ++] = current;
+			}
+			lastReturned = resumeAfter = node.data;
+			return lastReturned;
+		}
+
+		@Override
+		public void remove() {
+			if ( lastReturned == null )
+				throw new IllegalStateException("next() has not been called");
+			if ( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+
+			SplayBST.this.remove(lastReturned);
+			expectedModCount = modCount;
+			seek();
+			lastReturned = null;
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements in this tree in ascending order
+	 * @return an iterator over the elements in this tree in ascending order
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iter(false);
+	}
+
+	/**
+	 * Returns an iterator over the elements in this tree in descending order
+	 * @return an iterator over the elements in this tree in descending order
+	 */
+	public Iterator<E> descendingIterator() {
+		return new Iter(true);
+	}
+
+}
\ No newline at end of file
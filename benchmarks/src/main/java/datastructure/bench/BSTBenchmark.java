@@ -0,0 +1,238 @@
+package datastructure.bench;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import datastructure.BST;
+
+/**
+ * JMH benchmarks of the BST operations, run side by side with java.util.TreeSet
+ * 	over several sizes and key distributions. Throughput is reported per
+ * 	operation, and so is latency by sampling: the mean together with its
+ * 	percentiles up to p99.99 and the maximum, which are what tell whether
+ * 	an upgrade lengthens the tail. Run with -prof gc for allocation rates, e.g.
+ *
+ * 	java -jar benchmarks/target/benchmarks.jar BSTBenchmark -p size=1000000 -prof gc
+ *
+ * @author Evelyn Wu
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Thread)
+public class BSTBenchmark {
+	/**
+	 * number of precomputed probes, a power of two
+	 */
+	private static final int PROBES = 1 << 16;
+
+	/**
+	 * width of the ranges read by getRange
+	 */
+	private static final int RANGE = 100;
+
+	/**
+	 * the implementation under test
+	 */
+	@Param({ "BST", "TreeSet" })
+	public String impl;
+
+	/**
+	 * number of elements in the tree
+	 */
+	@Param({ "1000", "100000", "1000000", "10000000" })
+	public int size;
+
+	/**
+	 * order of insertion and of probes
+	 */
+	@Param({ "RANDOM", "SORTED", "REVERSE", "ZIPF" })
+	public KeyDistribution distribution;
+
+	/**
+	 * keys in insertion order
+	 */
+	Integer[] keys;
+
+	/**
+	 * present keys to probe, in probe order
+	 */
+	Integer[] hits;
+
+	/**
+	 * absent keys to probe, in probe order
+	 */
+	Integer[] misses;
+
+	/**
+	 * positions to probe, in probe order
+	 */
+	int[] positions;
+
+	/**
+	 * the tree as a BST, or null when testing TreeSet
+	 */
+	BST<Integer> bst;
+
+	/**
+	 * the tree as a TreeSet, or null when testing BST
+	 */
+	TreeSet<Integer> treeSet;
+
+	/**
+	 * the tree under test
+	 */
+	NavigableSet<Integer> set;
+
+	/**
+	 * index of the next probe
+	 */
+	int next;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random random = new Random(42);
+		keys = distribution.keys(size, random);
+		positions = distribution.probes(size, PROBES, random);
+		hits = new Integer[PROBES];
+		misses = new Integer[PROBES];
+		for ( int i = 0; i < PROBES; i ++ ) {
+			hits[i] = 2 * positions[i];
+			misses[i] = 2 * positions[i] + 1;
+		}
+		set = build();
+	}
+
+	/**
+	 * Builds the tree under test by inserting the keys in distribution order
+	 * @return the tree
+	 */
+	NavigableSet<Integer> build() {
+		bst = null;
+		treeSet = null;
+		if ( impl.equals("BST") ) {
+			bst = new BST<Integer>();
+			for ( Integer key : keys )
+				bst.add(key);
+			return bst;
+		}
+		treeSet = new TreeSet<Integer>();
+		for ( Integer key : keys )
+			treeSet.add(key);
+		return treeSet;
+	}
+
+	/**
+	 * @return the index of the next probe, wrapping around
+	 */
+	int probe() {
+		return next = ( next + 1 ) & ( PROBES - 1 );
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 5)
+	public NavigableSet<Integer> addAll() {
+		return build();
+	}
+
+	@Benchmark
+	public boolean addRemove() {
+		Integer key = misses[probe()];
+		set.add(key);
+		return set.remove(key);
+	}
+
+	@Benchmark
+	public boolean removeAdd() {
+		Integer key = hits[probe()];
+		set.remove(key);
+		return set.add(key);
+	}
+
+	@Benchmark
+	public boolean containsHit() {
+		return set.contains(hits[probe()]);
+	}
+
+	@Benchmark
+	public boolean containsMiss() {
+		return set.contains(misses[probe()]);
+	}
+
+	@Benchmark
+	public Integer ceiling() {
+		return set.ceiling(misses[probe()]);
+	}
+
+	@Benchmark
+	public Integer floor() {
+		return set.floor(misses[probe()]);
+	}
+
+	@Benchmark
+	public Integer get() {
+		int index = positions[probe()];
+		if ( bst != null )
+			return bst.get(index);
+
+		// TreeSet has no positional access, so walk its iterator
+		Iterator<Integer> iter = treeSet.iterator();
+		for ( int i = 0; i < index; i ++ )
+			iter.next();
+		return iter.next();
+	}
+
+	@Benchmark
+	public ArrayList<Integer> getRange() {
+		Integer from = hits[probe()];
+		Integer to = from + 2 * RANGE;
+		if ( bst != null )
+			return bst.getRange(from, to);
+		return new ArrayList<Integer>(treeSet.subSet(from, true, to, true));
+	}
+
+	@Benchmark
+	public void iterateFirst10(Blackhole blackhole) {
+		Iterator<Integer> iter = set.iterator();
+		for ( int i = 0; i < 10 && iter.hasNext(); i ++ )
+			blackhole.consume(iter.next());
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void iterateAll(Blackhole blackhole) {
+		for ( Integer data : set )
+			blackhole.consume(data);
+	}
+
+	@Benchmark
+	public Object cloneTree() {
+		if ( bst != null )
+			return bst.clone();
+		return treeSet.clone();
+	}
+}
\ No newline at end of file
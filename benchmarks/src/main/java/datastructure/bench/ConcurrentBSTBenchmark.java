@@ -0,0 +1,148 @@
+package datastructure.bench;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.BST;
+import datastructure.ConcurrentBST;
+
+/**
+ * JMH benchmarks of one set shared by many threads, writing and reading at
+ * 	once: ConcurrentBST, java.util.concurrent.ConcurrentSkipListSet, and a BST
+ * 	behind a global lock as the baseline it replaces. Run with the thread count
+ * 	of the machine to see how writes scale, e.g.
+ *
+ * 	java -jar benchmarks/target/benchmarks.jar ConcurrentBSTBenchmark -t 32 -p size=1000000
+ *
+ * and with -t 1 for the single-thread reference.
+ *
+ * @author Evelyn Wu
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Benchmark)
+public class ConcurrentBSTBenchmark {
+	/**
+	 * The operations the benchmarks need from each implementation
+	 */
+	interface Target {
+		boolean add(Integer key);
+		boolean remove(Integer key);
+		boolean contains(Integer key);
+		Integer ceiling(Integer key);
+	}
+
+	/**
+	 * the implementation under test
+	 */
+	@Param({ "ConcurrentBST", "ConcurrentSkipListSet", "SynchronizedBST" })
+	public String impl;
+
+	/**
+	 * number of elements in the set
+	 */
+	@Param({ "100000", "1000000", "10000000" })
+	public int size;
+
+	/**
+	 * the set shared by every thread
+	 */
+	Target set;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Integer[] keys = KeyDistribution.RANDOM.keys(size, new Random(42));
+		if ( impl.equals("ConcurrentBST") ) {
+			ConcurrentBST<Integer> tree = new ConcurrentBST<Integer>(keys);
+			set = new Target() {
+				public boolean add(Integer key) { return tree.add(key); }
+				public boolean remove(Integer key) { return tree.remove(key); }
+				public boolean contains(Integer key) { return tree.contains(key); }
+				public Integer ceiling(Integer key) { return tree.ceiling(key); }
+			};
+		}
+		else if ( impl.equals("ConcurrentSkipListSet") ) {
+			ConcurrentSkipListSet<Integer> skipList = new ConcurrentSkipListSet<Integer>();
+			for ( Integer key : keys )
+				skipList.add(key);
+			set = new Target() {
+				public boolean add(Integer key) { return skipList.add(key); }
+				public boolean remove(Integer key) { return skipList.remove(key); }
+				public boolean contains(Integer key) { return skipList.contains(key); }
+				public Integer ceiling(Integer key) { return skipList.ceiling(key); }
+			};
+		}
+		else {
+			BST<Integer> tree = new BST<Integer>(keys);
+			set = new Target() {
+				public synchronized boolean add(Integer key) { return tree.add(key); }
+				public synchronized boolean remove(Integer key) { return tree.remove(key); }
+				public synchronized boolean contains(Integer key) { return tree.contains(key); }
+				public synchronized Integer ceiling(Integer key) { return tree.ceiling(key); }
+			};
+		}
+	}
+
+	/**
+	 * @return an odd key, absent from the initial set, spread over its whole range
+	 */
+	Integer absent() {
+		return 2 * ThreadLocalRandom.current().nextInt(size) + 1;
+	}
+
+	/**
+	 * @return an even key, present in the initial set
+	 */
+	Integer present() {
+		return 2 * ThreadLocalRandom.current().nextInt(size);
+	}
+
+	/**
+	 * Ingestion: every thread inserts and removes keys, keeping the size steady
+	 */
+	@Benchmark
+	public boolean addRemove() {
+		Integer key = absent();
+		set.add(key);
+		return set.remove(key);
+	}
+
+	/**
+	 * Read-mostly: one write in ten
+	 */
+	@Benchmark
+	public boolean mixed() {
+		int choice = ThreadLocalRandom.current().nextInt(10);
+		if ( choice == 0 ) {
+			Integer key = absent();
+			return set.add(key) && set.remove(key);
+		}
+		if ( choice < 5 )
+			return set.contains(present());
+		return set.ceiling(absent()) != null;
+	}
+
+	@Benchmark
+	public boolean containsHit() {
+		return set.contains(present());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package datastructure.bench;
+
+import java.util.Random;
+
+/**
+ * Orders in which keys are inserted into, and probed from, the trees under test.
+ * 	Keys are the even numbers 0, 2, ..., 2 * (size - 1) so that odd numbers are
+ * 	guaranteed misses
+ *
+ * @author Evelyn Wu
+ *
+ */
+public enum KeyDistribution {
+	/**
+	 * uniformly shuffled keys, uniformly random probes
+	 */
+	RANDOM,
+
+	/**
+	 * keys inserted in ascending order, probes in ascending order
+	 */
+	SORTED,
+
+	/**
+	 * keys inserted in descending order, probes in descending order
+	 */
+	REVERSE,
+
+	/**
+	 * shuffled keys, probes skewed towards a small hot set (Zipf, s = 1)
+	 */
+	ZIPF;
+
+	/**
+	 * Returns the keys of a tree of the given size, in insertion order
+	 * @param size - number of keys
+	 * @param random - source of randomness
+	 * @return the keys in the order they should be inserted
+	 */
+	public Integer[] keys(int size, Random random) {
+		Integer[] keys = new Integer[size];
+		for ( int i = 0; i < size; i ++ )
+			keys[i] = 2 * ( this == REVERSE ? size - 1 - i : i );
+
+		if ( this == RANDOM || this == ZIPF ) {
+			for ( int i = size - 1; i > 0; i -- ) {
+				int j = random.nextInt(i + 1);
+				Integer swap = keys[i];
+				keys[i] = keys[j];
+				keys[j] = swap;
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * Returns indexes into the sorted key range to probe, in probe order
+	 * @param size - number of keys in the tree
+	 * @param count - number of probes
+	 * @param random - source of randomness
+	 * @return indexes in [0, size)
+	 */
+	public int[] probes(int size, int count, Random random) {
+		int[] probes = new int[count];
+		for ( int i = 0; i < count; i ++ ) {
+			switch ( this ) {
+			case SORTED:
+				probes[i] = (int) ( (long) i * size / count );
+				break;
+			case REVERSE:
+				probes[i] = (int) ( (long) ( count - 1 - i ) * size / count );
+				break;
+			case ZIPF:
+				// inverse of the continuous 1/x distribution over [1, size + 1)
+				probes[i] = (int) Math.exp(random.nextDouble() * Math.log(size + 1.0)) - 1;
+				break;
+			default:
+				probes[i] = random.nextInt(size);
+			}
+		}
+		return probes;
+	}
+}
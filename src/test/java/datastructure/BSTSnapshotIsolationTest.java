@@ -0,0 +1,113 @@
+package datastructure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that trees sharing Nodes through snapshot(), addAll and the set
+ * 	algebra never observe each other's modifications
+ *
+ * @author Evelyn Wu
+ * @version 12/01/2019
+ *
+ */
+public class BSTSnapshotIsolationTest {
+
+	private static final Integer[] ELEMENTS = { 24, 4, 35, 12, 32, 15, 23 };
+
+	/**
+	 * Adds the elements one at a time, which leaves 15 with a single child
+	 * @return a new tree holding ELEMENTS
+	 */
+	private static BST<Integer> newTree() {
+		BST<Integer> tree = new BST<Integer>();
+		for ( Integer element : ELEMENTS )
+			tree.add(element);
+		return tree;
+	}
+
+	/**
+	 * Removing a Node with one child from a tree must leave the child shared
+	 */
+	@Test
+	public void removeThenAddDoesNotLeakIntoSnapshot() {
+		BST<Integer> tree = newTree();
+		BST<Integer> snapshot = tree.snapshot();
+
+		tree.remove(15);
+		tree.add(21);
+
+		assertFalse(snapshot.contains(21));
+		assertEquals(7, snapshot.size());
+		assertEquals(Arrays.asList(4, 12, 15, 23, 24, 32, 35), new ArrayList<Integer>(snapshot));
+		assertEquals(Integer.valueOf(35), snapshot.get(6));
+		assertEquals(Arrays.asList(4, 12, 21, 23, 24, 32, 35), new ArrayList<Integer>(tree));
+	}
+
+	/**
+	 * addAll into an empty tree shares the Nodes of its argument
+	 */
+	@Test
+	public void removeThenAddDoesNotLeakIntoAddAllTarget() {
+		BST<Integer> source = newTree();
+		BST<Integer> target = new BST<Integer>();
+		target.addAll(source);
+
+		source.remove(15);
+		source.add(21);
+
+		assertFalse(target.contains(21));
+		assertEquals(Arrays.asList(4, 12, 15, 23, 24, 32, 35), new ArrayList<Integer>(target));
+	}
+
+	/**
+	 * Random modifications of a tree and of its snapshots leave every
+	 * 	snapshot with the elements it was taken with
+	 */
+	@Test
+	public void randomModificationsKeepSnapshotsIsolated() {
+		Random random = new Random(1);
+		for ( int round = 0; round < 100; round ++ ) {
+			BST<Integer> tree = new BST<Integer>();
+			for ( int i = 0; i < 200; i ++ )
+				tree.add(random.nextInt(400));
+
+			List<BST<Integer>> snapshots = new ArrayList<BST<Integer>>();
+			List<List<Integer>> expected = new ArrayList<List<Integer>>();
+			for ( int i = 0; i < 2000; i ++ ) {
+				if ( random.nextInt(50) == 0 ) {
+					snapshots.add(tree.snapshot());
+					expected.add(new ArrayList<Integer>(tree));
+				}
+				if ( random.nextBoolean() )
+					tree.add(random.nextInt(400));
+				else
+					tree.remove(random.nextInt(400));
+			}
+
+			//modify every snapshot, then check that none saw the others' changes
+			for ( int i = 0; i < snapshots.size(); i ++ ) {
+				int removed = random.nextInt(400), added = random.nextInt(400);
+				snapshots.get(i).remove(removed);
+				snapshots.get(i).add(added);
+				TreeSet<Integer> model = new TreeSet<Integer>(expected.get(i));
+				model.remove(removed);
+				model.add(added);
+				expected.set(i, new ArrayList<Integer>(model));
+			}
+			for ( int i = 0; i < snapshots.size(); i ++ ) {
+				assertEquals(expected.get(i), new ArrayList<Integer>(snapshots.get(i)));
+				assertEquals(expected.get(i).size(), snapshots.get(i).size());
+			}
+		}
+	}
+
+}
\ No newline at end of file